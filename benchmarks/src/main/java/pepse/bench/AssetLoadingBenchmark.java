@@ -0,0 +1,106 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import pepse.world.AvatarSprites;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of loading the avatar's sprites: decoding the packed atlas against decoding every frame
+ * as its own PNG, as the avatar used to. Images are decoded from memory, so file system
+ * caching does not blur the comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AssetLoadingBenchmark {
+	private static final String ATLAS_IMAGE = "assets/avatar_atlas.png";
+	private static final String ATLAS_INDEX = "assets/avatar_atlas.txt";
+
+	private byte[] atlas;
+	private final List<byte[]> frames = new ArrayList<>();
+
+	/**
+	 * Reads the atlas, and cuts it back into one PNG per frame.
+	 *
+	 * @throws IOException If the atlas cannot be read.
+	 */
+	@Setup
+	public void setup() throws IOException {
+		atlas = readResource(ATLAS_IMAGE);
+		BufferedImage atlasImage = ImageIO.read(new ByteArrayInputStream(atlas));
+		String index = new String(readResource(ATLAS_INDEX), StandardCharsets.UTF_8);
+		for (String line : index.split("\n")) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] fields = line.split("\\s+");
+			BufferedImage frame = atlasImage.getSubimage(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+					Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+			ByteArrayOutputStream png = new ByteArrayOutputStream();
+			ImageIO.write(frame, "png", png);
+			frames.add(png.toByteArray());
+		}
+	}
+
+	/**
+	 * Decodes every frame from its own PNG.
+	 *
+	 * @return The last decoded frame.
+	 * @throws IOException If a frame cannot be decoded.
+	 */
+	@Benchmark
+	public BufferedImage decodeSeparateFrames() throws IOException {
+		BufferedImage image = null;
+		for (byte[] frame : frames) {
+			image = ImageIO.read(new ByteArrayInputStream(frame));
+		}
+		return image;
+	}
+
+	/**
+	 * Decodes the atlas holding every frame.
+	 *
+	 * @return The decoded atlas.
+	 * @throws IOException If the atlas cannot be decoded.
+	 */
+	@Benchmark
+	public BufferedImage decodeAtlas() throws IOException {
+		return ImageIO.read(new ByteArrayInputStream(atlas));
+	}
+
+	/**
+	 * Loads the avatar's sprites from the classpath, as the game does: the atlas, its index and
+	 * the idle animation.
+	 *
+	 * @return The avatar's sprites.
+	 * @throws IOException If the atlas cannot be read.
+	 */
+	@Benchmark
+	public AvatarSprites loadAvatarSprites() throws IOException {
+		return AvatarSprites.load();
+	}
+
+	// Reads a classpath resource
+	private static byte[] readResource(String path) throws IOException {
+		try (InputStream in = AssetLoadingBenchmark.class.getClassLoader().getResourceAsStream(path)) {
+			if (in == null) {
+				throw new IOException("Missing resource " + path);
+			}
+			return in.readAllBytes();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package pepse.bench;
+
+import danogl.gui.rendering.AnimationRenderable;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.*;
+import pepse.input.VirtualKeyboard;
+import pepse.world.Avatar;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single avatar frame while standing and while running.
+ * Run with {@code -prof gc}: gc.alloc.rate.norm is what a frame of the avatar allocates
+ * (polling the scripted input allocates nothing).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AvatarBenchmark {
+	private static final float FRAME_TIME = 1 / 60f;
+
+	private final VirtualKeyboard keyboard = new VirtualKeyboard();
+	private Avatar avatar;
+
+	/**
+	 * Creates an avatar with plain colored animations, driven by scripted input.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		avatar = new Avatar(Vector2.ZERO, keyboard.asListener(),
+				animation(Color.GRAY), animation(Color.BLUE), animation(Color.RED));
+	}
+
+	/**
+	 * An avatar frame with no key pressed.
+	 */
+	@Benchmark
+	public void idle() {
+		keyboard.setPressed(KeyEvent.VK_RIGHT, false);
+		avatar.update(FRAME_TIME);
+	}
+
+	/**
+	 * An avatar frame with the right arrow held (the avatar rests when out of energy).
+	 */
+	@Benchmark
+	public void running() {
+		keyboard.setPressed(KeyEvent.VK_RIGHT, true);
+		avatar.update(FRAME_TIME);
+	}
+
+	// A single-frame animation of a plain color, so no image assets are needed
+	private static AnimationRenderable animation(Color color) {
+		return new AnimationRenderable(new Renderable[]{new RectangleRenderable(color)}, 1f);
+	}
+}
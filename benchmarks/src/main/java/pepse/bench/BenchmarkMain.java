@@ -0,0 +1,36 @@
+package pepse.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the world generation benchmarks headless, writing the results as JSON.
+ * Accepts the standard JMH command line; unless a result format is given,
+ * results go to jmh-result.json so runs can be compared over time.
+ */
+public class BenchmarkMain {
+	private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	/**
+	 * Entry point.
+	 *
+	 * @param args Standard JMH command-line arguments (e.g. a benchmark regex, -f, -wi, -prof gc).
+	 * @throws RunnerException            If a benchmark fails.
+	 * @throws CommandLineOptionException If the arguments cannot be parsed.
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.parent(commandLine)
+				.jvmArgsAppend("-Djava.awt.headless=true");
+		if (!commandLine.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON).result(DEFAULT_RESULT_FILE);
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,106 @@
+package pepse.bench;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.*;
+import pepse.world.Terrain;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.ChunkManager;
+import pepse.world.chunks.ChunkStore;
+import pepse.world.trees.Flora;
+import pepse.world.trees.WindAnimator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of getting a chunk's data from the world cache, against generating it.
+ * Generation always uses a chunk that was never generated before (cold height map cache);
+ * loading cycles through chunks saved beforehand, with their region files open.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkStoreBenchmark {
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+	private static final int SEED = 1234;
+	private static final int SAVED_CHUNKS = 4 * ChunkStore.REGION_CHUNKS;
+
+	private Terrain terrain;
+	private Flora flora;
+	private Path directory;
+	private ChunkStore store;
+	private int nextGenerated;
+	private int nextLoaded;
+
+	/**
+	 * Creates the world and saves SAVED_CHUNKS chunks of it in a temporary cache.
+	 *
+	 * @throws IOException If the cache cannot be written.
+	 */
+	@Setup
+	public void setup() throws IOException {
+		terrain = new Terrain(WINDOW_DIMENSIONS, SEED, true);
+		flora = new Flora(terrain, new GameObjectCollection(), Layer.STATIC_OBJECTS, SEED, new WindAnimator());
+		directory = Files.createTempDirectory("pepse-world-cache");
+		store = new ChunkStore(directory, SEED, terrain.getBaseHeight());
+		for (int index = 0; index < SAVED_CHUNKS; index++) {
+			store.save(generate(index));
+		}
+		nextGenerated = SAVED_CHUNKS;
+	}
+
+	/**
+	 * Deletes the temporary cache.
+	 *
+	 * @throws IOException If the cache cannot be deleted.
+	 */
+	@TearDown
+	public void tearDown() throws IOException {
+		store.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	/**
+	 * Generates the data of the next new chunk, as the chunk manager does without a cache.
+	 *
+	 * @return The chunk's data.
+	 */
+	@Benchmark
+	public ChunkData generateChunk() {
+		return generate(nextGenerated++);
+	}
+
+	/**
+	 * Loads the data of the next saved chunk.
+	 *
+	 * @return The chunk's data.
+	 * @throws IOException If the chunk cannot be read.
+	 */
+	@Benchmark
+	public ChunkData loadChunk() throws IOException {
+		nextLoaded = (nextLoaded + 1) % SAVED_CHUNKS;
+		return store.load(nextLoaded);
+	}
+
+	// Generates a chunk's terrain columns and tree layouts
+	private ChunkData generate(int index) {
+		int minX = index * ChunkManager.CHUNK_WIDTH;
+		int maxX = minX + ChunkManager.CHUNK_WIDTH;
+		return new ChunkData(index,
+				terrain.generateInRange(minX, maxX - Terrain.BLOCK_SIZE),
+				flora.layoutInRange(minX, maxX));
+	}
+}
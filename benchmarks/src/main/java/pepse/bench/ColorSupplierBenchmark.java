@@ -0,0 +1,77 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import danogl.gui.rendering.RectangleRenderable;
+import pepse.util.ColorSupplier;
+import pepse.util.RenderableCache;
+
+import java.awt.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the color jitter applied to every block, leaf and fruit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColorSupplierBenchmark {
+	private static final Color BASE_COLOR = new Color(212, 123, 74);
+
+	private final Random random = new Random(1234);
+
+	/**
+	 * A color around the base color with the default delta.
+	 *
+	 * @return The approximated color.
+	 */
+	@Benchmark
+	public Color approximateColor() {
+		return ColorSupplier.approximateColor(BASE_COLOR);
+	}
+
+	/**
+	 * The same, called from four threads at once. Each thread draws from its own generator,
+	 * so the time per call should match the single-threaded one.
+	 *
+	 * @return The approximated color.
+	 */
+	@Benchmark
+	@Threads(4)
+	public Color approximateColorFromFourThreads() {
+		return ColorSupplier.approximateColor(BASE_COLOR);
+	}
+
+	/**
+	 * A shared color from the base color's palette.
+	 *
+	 * @return The palette color.
+	 */
+	@Benchmark
+	public Color paletteColor() {
+		return ColorSupplier.paletteColor(BASE_COLOR, random);
+	}
+
+	/**
+	 * A palette color and its shared renderable, as used for every block and leaf.
+	 *
+	 * @return The renderable.
+	 */
+	@Benchmark
+	public RectangleRenderable paletteRenderable() {
+		return RenderableCache.rectangle(ColorSupplier.paletteColor(BASE_COLOR, random));
+	}
+
+	/**
+	 * A gray level around the base color with the default delta.
+	 *
+	 * @return The approximated color.
+	 */
+	@Benchmark
+	public Color approximateMonoColor() {
+		return ColorSupplier.approximateMonoColor(BASE_COLOR);
+	}
+}
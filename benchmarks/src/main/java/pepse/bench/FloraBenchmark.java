@@ -0,0 +1,73 @@
+package pepse.bench;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.*;
+import pepse.world.Terrain;
+import pepse.world.chunks.ChunkManager;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Tree;
+import pepse.world.trees.WindAnimator;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating trees (trunk, leaves and fruit), alone and for a whole chunk.
+ * A fresh object collection is used for every invocation so created objects do not pile up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FloraBenchmark {
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+	private static final int SEED = 1234;
+
+	private Terrain terrain;
+	private GameObjectCollection gameObjects;
+	private WindAnimator wind;
+	private Flora flora;
+
+	/**
+	 * Creates the terrain the trees stand on.
+	 */
+	@Setup(Level.Trial)
+	public void setupTerrain() {
+		terrain = new Terrain(WINDOW_DIMENSIONS, SEED, true);
+	}
+
+	/**
+	 * Creates an empty object collection.
+	 */
+	@Setup(Level.Invocation)
+	public void setupCollection() {
+		gameObjects = new GameObjectCollection();
+		wind = new WindAnimator();
+		flora = new Flora(terrain, gameObjects, Layer.STATIC_OBJECTS, SEED, wind);
+	}
+
+	/**
+	 * Lays out and creates a single tree, the same one every time.
+	 *
+	 * @return The created tree.
+	 */
+	@Benchmark
+	public Tree createTree() {
+		return Tree.build(Tree.layout(0, terrain, new Random(SEED)), gameObjects, Layer.STATIC_OBJECTS, wind, true);
+	}
+
+	/**
+	 * Plants the trees of one chunk.
+	 *
+	 * @return The planted trees.
+	 */
+	@Benchmark
+	public List<Tree> createChunkFlora() {
+		return flora.createInRange(0, ChunkManager.CHUNK_WIDTH);
+	}
+}
@@ -0,0 +1,86 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.*;
+import pepse.util.NoiseGenerator;
+import pepse.world.HeightMap;
+import pepse.world.Terrain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the Perlin noise used for terrain heights, per point and per chunk of columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NoiseBenchmark {
+	private static final int SEED = 1234;
+	// Ground height at x = 0 on a 1080p window, as used by Terrain
+	private static final int START_POINT = 720;
+	private static final double FACTOR = Terrain.BLOCK_SIZE * 7;
+
+	private NoiseGenerator noise;
+	private final double[] doubleColumns = new double[HeightMap.COLUMNS_PER_CHUNK];
+	private final float[] floatColumns = new float[HeightMap.COLUMNS_PER_CHUNK];
+	private double x;
+
+	/**
+	 * Creates the generator.
+	 */
+	@Setup
+	public void setup() {
+		noise = new NoiseGenerator(SEED, START_POINT);
+	}
+
+	/**
+	 * A single noise evaluation, moving along x between calls.
+	 *
+	 * @return The noise value.
+	 */
+	@Benchmark
+	public double singlePoint() {
+		x += Terrain.BLOCK_SIZE;
+		return noise.noise(x, FACTOR);
+	}
+
+	/**
+	 * One chunk of columns evaluated point by point.
+	 *
+	 * @return The last column, to keep the work alive.
+	 */
+	@Benchmark
+	public double chunkPointByPoint() {
+		x += HeightMap.COLUMNS_PER_CHUNK * Terrain.BLOCK_SIZE;
+		for (int i = 0; i < doubleColumns.length; i++) {
+			doubleColumns[i] = noise.noise(x + i * Terrain.BLOCK_SIZE, FACTOR);
+		}
+		return doubleColumns[doubleColumns.length - 1];
+	}
+
+	/**
+	 * One chunk of columns evaluated with the batch API into a double array.
+	 *
+	 * @return The filled array.
+	 */
+	@Benchmark
+	public double[] chunkBatchDouble() {
+		x += HeightMap.COLUMNS_PER_CHUNK * Terrain.BLOCK_SIZE;
+		noise.noise(x, Terrain.BLOCK_SIZE, FACTOR, doubleColumns, 0, doubleColumns.length);
+		return doubleColumns;
+	}
+
+	/**
+	 * One chunk of columns evaluated with the batch API into a float array, as Terrain does.
+	 *
+	 * @return The filled array.
+	 */
+	@Benchmark
+	public float[] chunkBatchFloat() {
+		x += HeightMap.COLUMNS_PER_CHUNK * Terrain.BLOCK_SIZE;
+		noise.noise(x, Terrain.BLOCK_SIZE, FACTOR, floatColumns, 0, floatColumns.length);
+		return floatColumns;
+	}
+}
@@ -0,0 +1,61 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.*;
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.chunks.ChunkManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating the terrain of one chunk, in both terrain modes.
+ * Every invocation generates a chunk that was never generated before, so the
+ * height map cache is always cold, as when the player walks into new territory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TerrainBenchmark {
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+	private static final int SEED = 1234;
+
+	@Param({"false", "true"})
+	private boolean mergeColumns;
+
+	private Terrain terrain;
+	private int chunkMinX;
+
+	/**
+	 * Creates the terrain.
+	 */
+	@Setup
+	public void setup() {
+		terrain = new Terrain(WINDOW_DIMENSIONS, SEED, mergeColumns);
+	}
+
+	/**
+	 * Generates the ground blocks of the next chunk.
+	 *
+	 * @return The created blocks.
+	 */
+	@Benchmark
+	public List<Block> createChunk() {
+		chunkMinX += ChunkManager.CHUNK_WIDTH;
+		return terrain.createInRange(chunkMinX, chunkMinX + ChunkManager.CHUNK_WIDTH - Terrain.BLOCK_SIZE);
+	}
+
+	/**
+	 * Ground height query at a block-aligned x, as trees do, on a warm cache.
+	 *
+	 * @return The ground height.
+	 */
+	@Benchmark
+	public float groundHeightCached() {
+		return terrain.groundHeightAt(Terrain.BLOCK_SIZE * 5);
+	}
+}
@@ -8,18 +8,35 @@ import danogl.gui.ImageReader;
 import danogl.gui.SoundReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.WindowController;
+import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
 
+import pepse.input.InputRecorder;
+import pepse.input.InputReplay;
+import pepse.util.Profiler;
+import pepse.util.StartupTimer;
 import pepse.world.*;
 import pepse.world.UI.EnergyPanel;
+import pepse.world.UI.FrameRateMeter;
+import pepse.world.UI.Hud;
+import pepse.world.UI.ProfilerOverlay;
+import pepse.world.chunks.ChunkManager;
+import pepse.world.chunks.ChunkStore;
+import pepse.world.chunks.VisibilityManager;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
 import pepse.world.trees.Flora;
+import pepse.world.trees.WindAnimator;
 import pepse.world.weather.CloudsManager;
 
-import java.util.List;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Entry point for the Pepse game.
@@ -33,6 +50,68 @@ public class PepseGameManager extends GameManager {
 	//Duration of a full day-night cycle
 	private static final float CYCLE_LENGTH = 30f;
 
+	//Distance beyond the screen edges within which leaves keep swaying
+	private static final float WIND_CULL_MARGIN = 100f;
+	//Distance beyond the screen edges within which world chunks stay active (wider than a tree crown)
+	private static final float CHUNK_CULL_MARGIN = 4 * Terrain.BLOCK_SIZE;
+
+	//HUD readouts, below the energy panel, refreshed a few times per second
+	private static final Vector2 HUD_TOP_LEFT = new Vector2(15, 50);
+	private static final float HUD_REFRESH_RATE = 4f;
+
+	//Profiler overlay, toggled with F3, in the top-right corner
+	private static final int PROFILER_TOGGLE_KEY = KeyEvent.VK_F3;
+	private static final float PROFILER_OVERLAY_WIDTH = 260f;
+	//System property naming a CSV file to dump profiler samples to
+	private static final String PROFILE_CSV_PROPERTY = "pepse.profile";
+
+	private Avatar avatar;
+	private ChunkManager chunkManager;
+	private final FrameRateMeter frameRateMeter = new FrameRateMeter();
+	private UserInputListener inputListener;
+	private ProfilerOverlay profilerOverlay;
+	private final int seed;
+	private final InputReplay replay;
+	private final Path recordFile;
+	private final Path worldCache;
+	private InputRecorder recorder;
+	private boolean firstFrameDone = false;
+
+	/**
+	 * Constructs the game on a new random world, played with the keyboard.
+	 */
+	public PepseGameManager() {
+		this(null, null);
+	}
+
+	/**
+	 * Constructs the game, optionally replaying or recording the avatar's input.
+	 *
+	 * @param replay     Recorded input to drive the avatar with (and whose terrain seed to use),
+	 *                   or null to play with the keyboard on a new random world.
+	 * @param recordFile File to record the avatar's input to, or null.
+	 */
+	public PepseGameManager(InputReplay replay, Path recordFile) {
+		this(replay != null ? replay.getSeed() : new Random().nextInt(), replay, recordFile, null);
+	}
+
+	/**
+	 * Constructs the game on a given world, optionally replaying or recording the avatar's input
+	 * and keeping the world on disk.
+	 *
+	 * @param seed       The terrain seed; ignored when replaying, which uses the recorded seed.
+	 * @param replay     Recorded input to drive the avatar with, or null to play with the keyboard.
+	 * @param recordFile File to record the avatar's input to (the replayed input when replaying), or null.
+	 * @param worldCache Directory to save the world's chunks (and eaten fruits) in and load them from
+	 *                   on later runs with the same seed, or null to generate every chunk.
+	 */
+	public PepseGameManager(int seed, InputReplay replay, Path recordFile, Path worldCache) {
+		this.seed = replay != null ? replay.getSeed() : seed;
+		this.replay = replay;
+		this.recordFile = recordFile;
+		this.worldCache = worldCache;
+	}
+
 	/**
 	 * Initializes all major game components.
 	 *
@@ -48,11 +127,23 @@ public class PepseGameManager extends GameManager {
 			UserInputListener inputListener,
 			WindowController windowController) {
 
-		// Generate a new seed for noise-based terrain generation
-		terrainSeed = new Random().nextInt();
+		// The seed for noise-based terrain generation: random or given, or the recorded one when replaying
+		terrainSeed = seed;
+		UserInputListener avatarInput = replay != null ? replay.asListener() : inputListener;
+		if (recordFile != null) {
+			startRecording();
+		}
+
+		// Pure data (avatar sprites, the initial chunks' heights, colors and tree layouts) is prepared
+		// on a startup pool while this thread sets up the rest; it is added to the game afterwards
+		ForkJoinPool startupPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		long spritesStart = System.nanoTime();
+		CompletableFuture<AvatarSprites> avatarSprites = AvatarSprites.loadAsync(startupPool)
+				.whenComplete((sprites, failure) -> StartupTimer.recordTask("avatar sprites", spritesStart));
 
 		// Standard engine init
 		super.initializeGame(imageReader, soundReader, inputListener, windowController);
+		StartupTimer.mark("engine");
 
 		Vector2 windowDimensions = windowController.getWindowDimensions();
 
@@ -61,12 +152,20 @@ public class PepseGameManager extends GameManager {
 		sky.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 		gameObjects().addGameObject(sky, Layer.BACKGROUND);
 
-		// ---------- Terrain ----------
-		Terrain terrain = new Terrain(windowDimensions, terrainSeed);
-		List<Block> groundBlocks = terrain.createInRange(0, (int) windowDimensions.x());
-		for (Block block : groundBlocks) {
-			gameObjects().addGameObject(block, Layer.STATIC_OBJECTS);
+		// ---------- Terrain + Flora (streamed in chunks around the avatar) ----------
+		Terrain terrain = new Terrain(windowDimensions, terrainSeed, true);
+		WindAnimator wind = new WindAnimator();
+		gameObjects().addGameObject(wind, Layer.BACKGROUND);
+		Flora flora = new Flora(terrain, gameObjects(), Layer.STATIC_OBJECTS, terrainSeed, wind);
+		chunkManager = new ChunkManager(terrain, flora, gameObjects(),
+				Layer.STATIC_OBJECTS, windowDimensions.x());
+		if (worldCache != null) {
+			useWorldCache(terrain);
 		}
+		long chunksStart = System.nanoTime();
+		chunkManager.startPreload(windowDimensions.x() / 2f, startupPool)
+				.whenComplete((ignored, failure) -> StartupTimer.recordTask("initial chunk data", chunksStart));
+		StartupTimer.mark("sky and world setup");
 
 		// ---------- Night overlay ----------
 		GameObject night = Night.create(windowDimensions, CYCLE_LENGTH);
@@ -82,37 +181,174 @@ public class PepseGameManager extends GameManager {
 		GameObject sunHalo = SunHalo.create(sun);
 		sunHalo.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 		gameObjects().addGameObject(sunHalo, Layer.BACKGROUND);
+		StartupTimer.mark("day and night");
+
+		// ---------- Initial chunks: wait for their data, then add them to the game ----------
+		chunkManager.finishPreload();
+		StartupTimer.mark("terrain and flora");
 
 		// ---------- Avatar ----------
 		float groundHeight = terrain.groundHeightAt(windowDimensions.x() / 2f);
 		Vector2 avatarInitialLocation = new Vector2(windowDimensions.x() / 2f, groundHeight);
-		Avatar avatar = new Avatar(avatarInitialLocation, inputListener, imageReader);
+		avatar = new Avatar(avatarInitialLocation, avatarInput, avatarSprites.join());
 		gameObjects().addGameObject(avatar, Layer.DEFAULT);
+		setCamera(new Camera(avatar,
+				windowDimensions.mult(0.5f).subtract(avatarInitialLocation),
+				windowDimensions,
+				windowDimensions));
+		wind.setViewport(camera(), WIND_CULL_MARGIN);
+		chunkManager.setVisibility(new VisibilityManager(camera(), CHUNK_CULL_MARGIN));
+		StartupTimer.mark("avatar");
+		startupPool.shutdown();
 
 		// ---------- Energy Panel UI ----------
-		EnergyPanel energyPanel = new EnergyPanel(gameObjects(), avatar::getEnergy);
-		gameObjects().addGameObject(energyPanel, Layer.UI);
-
-		// ---------- Flora ----------
-		Flora flora = new Flora(terrain, gameObjects(), Layer.STATIC_OBJECTS);
-		flora.createInRange(0, (int) windowDimensions.x());
+		// The panel adds itself (and its text) to the UI layer
+		new EnergyPanel(gameObjects(), avatar::getEnergy);
 
 		// ---------- Clouds + Rain ----------
 		CloudsManager cloudsManager = new CloudsManager(
 				gameObjects(),
 				windowDimensions,
-				Layer.BACKGROUND
+				Layer.BACKGROUND,
+				terrainSeed
 		);
 		cloudsManager.startSpawningClouds();
 		avatar.addJumpObserver(cloudsManager); // attach cloud rain to jump event
+		StartupTimer.mark("energy panel and clouds");
+
+		// ---------- HUD ----------
+		Hud hud = new Hud(gameObjects(), HUD_TOP_LEFT, HUD_REFRESH_RATE);
+		hud.addWidget("FPS: ", frameRateMeter::getFps, 1);
+		hud.addWidget("Frame (ms): ", frameRateMeter::getFrameTimeMillis, 1);
+		hud.addWidget("Objects: ", this::countGameObjects);
+		hud.addWidget("Chunks: ", chunkManager::getLoadedChunkCount);
+		hud.addWidget("Rain drops: ", cloudsManager.getRainParticles()::getLiveCount);
+		hud.addWidget("Rain skipped: ", cloudsManager.getRainParticles()::getDroppedCount);
+
+		// ---------- Profiling ----------
+		this.inputListener = inputListener;
+		profilerOverlay = new ProfilerOverlay(gameObjects(),
+				new Vector2(windowDimensions.x() - PROFILER_OVERLAY_WIDTH, HUD_TOP_LEFT.y()));
+		String profileCsv = System.getProperty(PROFILE_CSV_PROPERTY);
+		if (profileCsv != null) {
+			try {
+				Profiler.startCsvDump(Paths.get(profileCsv));
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot write profiler samples to " + profileCsv, e);
+			}
+		}
+		StartupTimer.mark("hud and profiler");
+	}
+
+	/**
+	 * Advances the game by one frame and streams world chunks around the avatar.
+	 *
+	 * @param deltaTime Time since the last frame.
+	 */
+	@Override
+	public void update(float deltaTime) {
+		if (inputListener.wasKeyPressedThisFrame(PROFILER_TOGGLE_KEY)) {
+			profilerOverlay.toggle();
+		}
+		if (replay != null) {
+			replay.nextTick();
+		}
+		if (recorder != null) {
+			// Records the keys driving the avatar, which are the replayed ones when replaying
+			recorder.record(replay != null ? replay.asListener() : inputListener);
+		}
+		long start = Profiler.start();
+		super.update(deltaTime);
+		Profiler.stop(Profiler.Section.GAME_UPDATE, start);
+		frameRateMeter.tick(deltaTime);
+		chunkManager.update(avatar.getCenter().x());
+		Profiler.endFrame(deltaTime, gameObjects());
+		if (!firstFrameDone) {
+			firstFrameDone = true;
+			StartupTimer.firstFrameDone();
+		}
+	}
+
+	/**
+	 * Runs the game until its window is closed, then stops streaming chunks and saves the world
+	 * cache, on the thread that ran the game.
+	 */
+	@Override
+	public void run() {
+		super.run();
+		chunkManager.close();
+	}
+
+	// Opens the recording file; the last run of keys is written when the game exits
+	private void startRecording() {
+		try {
+			recorder = new InputRecorder(recordFile, terrainSeed);
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot record input to " + recordFile, e);
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				recorder.close();
+			} catch (IOException e) {
+				System.err.println("Failed to finish the input recording: " + e.getMessage());
+			}
+		}));
+	}
+
+	// Loads and saves chunks in the world cache; eaten fruits still respawning are saved when the game exits
+	private void useWorldCache(Terrain terrain) {
+		try {
+			chunkManager.setStore(new ChunkStore(worldCache, terrainSeed, terrain.getBaseHeight()));
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot use the world cache in " + worldCache, e);
+		}
+	}
+
+	// Counts the game objects in every layer
+	private int countGameObjects() {
+		int count = 0;
+		for (GameObject ignored : gameObjects()) {
+			count++;
+		}
+		return count;
 	}
 
 	/**
 	 * Launches the game via the game manager.
 	 *
-	 * @param args Command-line arguments (not used).
+	 * @param args Optional: {@code --record <file>} to record the avatar's input,
+	 *             {@code --replay <file>} to replay a recording instead of using the keyboard,
+	 *             {@code --seed <n>} to play a given world instead of a random one,
+	 *             {@code --world-cache <directory>} to keep the world on disk between runs.
+	 * @throws IOException If the recording to replay cannot be read.
 	 */
-	public static void main(String[] args) {
-		new PepseGameManager().run();
+	public static void main(String[] args) throws IOException {
+		StartupTimer.begin();
+		InputReplay replay = null;
+		Path recordFile = null;
+		Path worldCache = null;
+		int seed = new Random().nextInt();
+		for (int i = 0; i < args.length; i += 2) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value for option: " + args[i]);
+			}
+			switch (args[i]) {
+				case "--seed":
+					seed = Integer.parseInt(args[i + 1]);
+					break;
+				case "--world-cache":
+					worldCache = Paths.get(args[i + 1]);
+					break;
+				case "--record":
+					recordFile = Paths.get(args[i + 1]);
+					break;
+				case "--replay":
+					replay = InputReplay.load(Paths.get(args[i + 1]));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		new PepseGameManager(seed, replay, recordFile, worldCache).run();
 	}
 }
@@ -0,0 +1,126 @@
+package pepse.headless;
+
+import danogl.util.Vector2;
+import pepse.input.InputReplay;
+import pepse.input.VirtualKeyboard;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Runs the world without a window, at a fixed timestep and as fast as possible, for soak tests
+ * and batch measurements. A scripted player runs right and jumps at a fixed interval, unless
+ * a recording is replayed, in which case the run repeats the recorded one exactly.
+ * <p>
+ * Prints a CSV line every report interval (of simulated time) with the tick throughput,
+ * heap usage, world size and rain drops (live, and skipped because the rain was full). Options:
+ * {@code --seconds <simulated seconds>}, {@code --seed <terrain seed>},
+ * {@code --report-every <simulated seconds>},
+ * {@code --replay <recording>} (uses the recorded seed, and by default runs as long as the recording),
+ * {@code --world-cache <directory>} (loads and saves chunks there, see ChunkStore).
+ */
+public class HeadlessRunner {
+	private static final float TICK_SECONDS = 1 / 60f;
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+	private static final double DEFAULT_SECONDS = 600;
+	private static final double DEFAULT_REPORT_SECONDS = 60;
+	private static final int DEFAULT_SEED = 1234;
+	//Scripted player: hold right, and tap jump this often
+	private static final double JUMP_INTERVAL_SECONDS = 3;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+	/**
+	 * Entry point.
+	 *
+	 * @param args Options, see the class description.
+	 * @throws IOException If the recording to replay cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		double seconds = -1;
+		double reportSeconds = DEFAULT_REPORT_SECONDS;
+		int seed = DEFAULT_SEED;
+		InputReplay replay = null;
+		Path worldCache = null;
+		for (int i = 0; i < args.length; i += 2) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value for option: " + args[i]);
+			}
+			switch (args[i]) {
+				case "--seconds":
+					seconds = Double.parseDouble(args[i + 1]);
+					break;
+				case "--seed":
+					seed = Integer.parseInt(args[i + 1]);
+					break;
+				case "--replay":
+					replay = InputReplay.load(Paths.get(args[i + 1]));
+					break;
+				case "--world-cache":
+					worldCache = Paths.get(args[i + 1]);
+					break;
+				case "--report-every":
+					reportSeconds = Double.parseDouble(args[i + 1]);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+
+		VirtualKeyboard keyboard = new VirtualKeyboard();
+		HeadlessSimulation simulation = replay != null ?
+				new HeadlessSimulation(replay.getSeed(), WINDOW_DIMENSIONS, replay.asListener(), worldCache) :
+				new HeadlessSimulation(seed, WINDOW_DIMENSIONS, keyboard.asListener(), worldCache);
+		long ticksPerJump = Math.round(JUMP_INTERVAL_SECONDS / TICK_SECONDS);
+		long ticksPerReport = Math.max(1, Math.round(reportSeconds / TICK_SECONDS));
+		long totalTicks;
+		if (seconds >= 0) {
+			totalTicks = Math.round(seconds / TICK_SECONDS);
+		} else if (replay != null) {
+			totalTicks = replay.getTickCount();
+		} else {
+			totalTicks = Math.round(DEFAULT_SECONDS / TICK_SECONDS);
+		}
+
+		System.out.println("sim_s,ticks,ticks_per_s,heap_used_mb,objects,chunks,rain_drops,rain_skipped,avatar_x");
+		long reportStart = System.nanoTime();
+		for (long tick = 1; tick <= totalTicks; tick++) {
+			if (replay != null) {
+				replay.nextTick();
+			} else {
+				keyboard.setPressed(KeyEvent.VK_RIGHT, true);
+				keyboard.setPressed(KeyEvent.VK_SPACE, tick % ticksPerJump == 0);
+			}
+			simulation.tick(TICK_SECONDS);
+			keyboard.endFrame();
+
+			if (tick % ticksPerReport == 0 || tick == totalTicks) {
+				long now = System.nanoTime();
+				long reportTicks = tick % ticksPerReport == 0 ? ticksPerReport : tick % ticksPerReport;
+				report(simulation, reportTicks * NANOS_PER_SECOND / (now - reportStart));
+				reportStart = System.nanoTime();
+			}
+		}
+		simulation.getChunkManager().close();
+	}
+
+	// Prints a CSV line describing the current state of the simulation
+	private static void report(HeadlessSimulation simulation, double ticksPerSecond) {
+		Runtime runtime = Runtime.getRuntime();
+		double heapUsed = (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MEGABYTE;
+		System.out.println(String.format(Locale.ROOT, "%.1f,%d,%.1f,%.1f,%d,%d,%d,%d,%.0f",
+				simulation.getTime(),
+				simulation.getTicks(),
+				ticksPerSecond,
+				heapUsed,
+				simulation.countGameObjects(),
+				simulation.getChunkManager().getLoadedChunkCount(),
+				simulation.getCloudsManager().getRainParticles().getLiveCount(),
+				simulation.getCloudsManager().getRainParticles().getDroppedCount(),
+				simulation.getAvatar().getCenter().x()));
+	}
+}
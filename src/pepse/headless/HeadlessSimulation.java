@@ -0,0 +1,207 @@
+package pepse.headless;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.gui.UserInputListener;
+import danogl.gui.rendering.AnimationRenderable;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.Profiler;
+import pepse.world.Avatar;
+import pepse.world.Block;
+import pepse.world.Sky;
+import pepse.world.Terrain;
+import pepse.world.chunks.ChunkManager;
+import pepse.world.chunks.ChunkStore;
+import pepse.world.chunks.VisibilityManager;
+import pepse.world.daynight.Night;
+import pepse.world.daynight.Sun;
+import pepse.world.daynight.SunHalo;
+import pepse.world.trees.Flora;
+import pepse.world.trees.WindAnimator;
+import pepse.world.weather.CloudsManager;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The game world (sky, terrain, flora, day/night, clouds and rain, and the avatar) in its own
+ * object collection, advanced tick by tick without a window or rendering.
+ * The avatar is driven by any UserInputListener, e.g. a script or a recorded replay.
+ * <p>
+ * Without the engine's collision pass, the avatar is held on the ground by the simulation:
+ * after each tick, an avatar that sank into the ground blocks under it (found in the chunk
+ * manager's WorldIndex) is put back on top of them.
+ */
+public class HeadlessSimulation {
+	//Duration of a full day-night cycle, as in the game
+	private static final float CYCLE_LENGTH = 30f;
+	//Margins used for culling, as in the game
+	private static final float WIND_CULL_MARGIN = 100f;
+	private static final float CHUNK_CULL_MARGIN = 4 * Terrain.BLOCK_SIZE;
+	//Plain colored stand-ins for the avatar sprites, which need a window to load
+	private static final Color AVATAR_COLOR = Color.DARK_GRAY;
+
+	private final GameObjectCollection gameObjects = new GameObjectCollection();
+	private final ChunkManager chunkManager;
+	private final Terrain terrain;
+	private final Avatar avatar;
+	private final CloudsManager cloudsManager;
+	private final GameObject view;
+	// Reused result list of the ground query under the avatar
+	private final List<Block> groundBlocks = new ArrayList<>();
+	private long ticks = 0;
+	private double time = 0;
+
+	/**
+	 * Creates the world.
+	 *
+	 * @param seed             The terrain seed; the same seed always creates the same world.
+	 * @param windowDimensions Dimensions of the (virtual) window, which sizes the loaded area.
+	 * @param inputListener    The input driving the avatar.
+	 */
+	public HeadlessSimulation(int seed, Vector2 windowDimensions, UserInputListener inputListener) {
+		this(seed, windowDimensions, inputListener, null);
+	}
+
+	/**
+	 * Creates the world, optionally loading and saving its chunks in a world cache.
+	 *
+	 * @param seed             The terrain seed; the same seed always creates the same world.
+	 * @param windowDimensions Dimensions of the (virtual) window, which sizes the loaded area.
+	 * @param inputListener    The input driving the avatar.
+	 * @param worldCache       Directory of the world cache (see ChunkStore), or null to generate every chunk.
+	 */
+	public HeadlessSimulation(int seed, Vector2 windowDimensions, UserInputListener inputListener,
+							  Path worldCache) {
+		gameObjects.addGameObject(Sky.create(windowDimensions), Layer.BACKGROUND);
+
+		terrain = new Terrain(windowDimensions, seed, true);
+		WindAnimator wind = new WindAnimator();
+		gameObjects.addGameObject(wind, Layer.BACKGROUND);
+		Flora flora = new Flora(terrain, gameObjects, Layer.STATIC_OBJECTS, seed, wind);
+		chunkManager = new ChunkManager(terrain, flora, gameObjects,
+				Layer.STATIC_OBJECTS, windowDimensions.x());
+		if (worldCache != null) {
+			try {
+				chunkManager.setStore(new ChunkStore(worldCache, seed, terrain.getBaseHeight()));
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot use the world cache in " + worldCache, e);
+			}
+		}
+		chunkManager.preload(windowDimensions.x() / 2f);
+
+		GameObject sun = Sun.create(windowDimensions, CYCLE_LENGTH);
+		gameObjects.addGameObject(Night.create(windowDimensions, CYCLE_LENGTH), Layer.FOREGROUND);
+		gameObjects.addGameObject(sun, Layer.BACKGROUND);
+		gameObjects.addGameObject(SunHalo.create(sun), Layer.BACKGROUND);
+
+		float groundHeight = terrain.groundHeightAt(windowDimensions.x() / 2f);
+		avatar = new Avatar(new Vector2(windowDimensions.x() / 2f, groundHeight), inputListener,
+				plainAnimation(), plainAnimation(), plainAnimation());
+		gameObjects.addGameObject(avatar, Layer.DEFAULT);
+
+		// Stands in for the camera: a window-sized object kept centered on the avatar
+		view = new GameObject(Vector2.ZERO, windowDimensions, null);
+		view.setCenter(avatar.getCenter());
+		wind.setViewport(view, WIND_CULL_MARGIN);
+		chunkManager.setVisibility(new VisibilityManager(view, CHUNK_CULL_MARGIN));
+
+		cloudsManager = new CloudsManager(gameObjects, windowDimensions, Layer.BACKGROUND, seed);
+		cloudsManager.startSpawningClouds();
+		avatar.addJumpObserver(cloudsManager);
+	}
+
+	/**
+	 * Advances the world by one fixed step.
+	 *
+	 * @param deltaTime Duration of the step (in seconds).
+	 */
+	public void tick(float deltaTime) {
+		long start = Profiler.start();
+		gameObjects.update(deltaTime);
+		Profiler.stop(Profiler.Section.GAME_UPDATE, start);
+		keepAvatarOnGround();
+		view.setCenter(avatar.getCenter());
+		chunkManager.update(avatar.getCenter().x());
+		Profiler.endFrame(deltaTime, gameObjects);
+		ticks++;
+		time += deltaTime;
+	}
+
+	/**
+	 * @return The number of ticks simulated so far.
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return The simulated time so far (in seconds).
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * @return The avatar.
+	 */
+	public Avatar getAvatar() {
+		return avatar;
+	}
+
+	/**
+	 * @return The chunk manager streaming the world around the avatar.
+	 */
+	public ChunkManager getChunkManager() {
+		return chunkManager;
+	}
+
+	/**
+	 * @return The clouds and rain of the world.
+	 */
+	public CloudsManager getCloudsManager() {
+		return cloudsManager;
+	}
+
+	/**
+	 * @return The number of game objects in the world.
+	 */
+	public int countGameObjects() {
+		int count = 0;
+		for (GameObject ignored : gameObjects) {
+			count++;
+		}
+		return count;
+	}
+
+	// Puts the avatar back on top of the ground blocks under it if it sank into them, like landing
+	// on a block. Where no block is built yet, the terrain surface stands in for the blocks.
+	private void keepAvatarOnGround() {
+		float left = avatar.getTopLeftCorner().x();
+		groundBlocks.clear();
+		chunkManager.getWorldIndex().getBlocks().queryRange(left, left + avatar.getDimensions().x(), groundBlocks);
+		float groundHeight = Float.MAX_VALUE;
+		for (Block block : groundBlocks) {
+			groundHeight = Math.min(groundHeight, block.getTopLeftCorner().y());
+		}
+		if (groundBlocks.isEmpty()) {
+			groundHeight = terrain.groundHeightAt(avatar.getCenter().x());
+		}
+		float height = avatar.getDimensions().y();
+		if (avatar.getTopLeftCorner().y() + height >= groundHeight && avatar.getVelocity().y() >= 0) {
+			avatar.setTopLeftCorner(new Vector2(avatar.getTopLeftCorner().x(), groundHeight - height));
+			avatar.transform().setVelocityY(0);
+		}
+	}
+
+	// A single-frame animation of a plain color
+	private static AnimationRenderable plainAnimation() {
+		return new AnimationRenderable(new Renderable[]{new RectangleRenderable(AVATAR_COLOR)}, 1f);
+	}
+}
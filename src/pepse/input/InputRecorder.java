@@ -0,0 +1,89 @@
+package pepse.input;
+
+import danogl.gui.UserInputListener;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records the state of the game keys once per tick into a compact binary file
+ * (see InputRecording), to be replayed later by InputReplay.
+ */
+public class InputRecorder implements Closeable {
+	private final DataOutputStream out;
+	private int runMask = -1;
+	private long runLength = 0;
+	private boolean closed = false;
+
+	/**
+	 * Creates the recording file and writes its header.
+	 *
+	 * @param file The file to write; it is overwritten.
+	 * @param seed The terrain seed of the recorded run, so the replay sees the same world.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public InputRecorder(Path file, int seed) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+		out.writeInt(InputRecording.MAGIC);
+		out.writeInt(InputRecording.VERSION);
+		out.writeInt(seed);
+		out.flush();
+	}
+
+	/**
+	 * Records the keys pressed during the current tick. Must be called once per tick.
+	 *
+	 * @param input The input to record.
+	 */
+	public synchronized void record(UserInputListener input) {
+		if (closed) {
+			return;
+		}
+		int mask = InputRecording.maskOf(input);
+		if (mask == runMask) {
+			runLength++;
+			return;
+		}
+		try {
+			writeRun();
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to write the input recording", e);
+		}
+		runMask = mask;
+		runLength = 1;
+	}
+
+	/**
+	 * Writes the last run and closes the file. Further ticks are not recorded.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		writeRun();
+		out.close();
+	}
+
+	// Writes the current run, if any, and flushes so an abrupt exit loses at most one run
+	private void writeRun() throws IOException {
+		if (runLength == 0) {
+			return;
+		}
+		out.writeByte(runMask);
+		long remaining = runLength;
+		while (remaining >= 0x80) {
+			out.writeByte((int) (remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+		out.writeByte((int) remaining);
+		out.flush();
+	}
+}
@@ -0,0 +1,40 @@
+package pepse.input;
+
+import danogl.gui.UserInputListener;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * The binary format of recorded input, shared by InputRecorder and InputReplay.
+ * <p>
+ * A recording starts with a header: the magic number, the format version and the terrain
+ * seed of the recorded run (ints, big-endian). It is followed by runs of identical ticks,
+ * each a key mask byte and a tick count (unsigned varint: 7 bits per byte, low bits first,
+ * high bit set on all but the last byte). Holding a key for a minute takes a few bytes.
+ */
+final class InputRecording {
+	/** "PEPI" in ASCII. */
+	static final int MAGIC = 0x50455049;
+	static final int VERSION = 1;
+	/** The recorded keys; bit i of a mask is set when KEYS[i] is pressed. */
+	static final int[] KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE};
+
+	private InputRecording() {
+	}
+
+	/**
+	 * Reads the state of the recorded keys.
+	 *
+	 * @param input The input to read.
+	 * @return The mask of pressed keys.
+	 */
+	static int maskOf(UserInputListener input) {
+		int mask = 0;
+		for (int i = 0; i < KEYS.length; i++) {
+			if (input.isKeyPressed(KEYS[i])) {
+				mask |= 1 << i;
+			}
+		}
+		return mask;
+	}
+}
@@ -0,0 +1,140 @@
+package pepse.input;
+
+import danogl.gui.UserInputListener;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Replays a recording made by InputRecorder through a UserInputListener, one recorded tick
+ * per game tick. Combined with the recorded terrain seed, a replay at a fixed timestep
+ * repeats the recorded run exactly, so runs can be compared across builds.
+ */
+public class InputReplay {
+	private static final int INITIAL_RUNS = 64;
+
+	private final int seed;
+	private final int[] masks;
+	private final long[] lengths;
+	private final int runCount;
+	private final long tickCount;
+	private final VirtualKeyboard keyboard = new VirtualKeyboard();
+	private int run = 0;
+	private long tickInRun = 0;
+
+	private InputReplay(int seed, int[] masks, long[] lengths, int runCount) {
+		this.seed = seed;
+		this.masks = masks;
+		this.lengths = lengths;
+		this.runCount = runCount;
+		long ticks = 0;
+		for (int i = 0; i < runCount; i++) {
+			ticks += lengths[i];
+		}
+		this.tickCount = ticks;
+	}
+
+	/**
+	 * Reads a recording.
+	 *
+	 * @param file A file written by InputRecorder.
+	 * @return The replay, positioned before the first tick.
+	 * @throws IOException If the file cannot be read or is not a recording.
+	 */
+	public static InputReplay load(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != InputRecording.MAGIC) {
+				throw new IOException(file + " is not an input recording");
+			}
+			int version = in.readInt();
+			if (version != InputRecording.VERSION) {
+				throw new IOException("Unsupported input recording version " + version);
+			}
+			int seed = in.readInt();
+
+			int[] masks = new int[INITIAL_RUNS];
+			long[] lengths = new long[INITIAL_RUNS];
+			int runCount = 0;
+			int mask;
+			while ((mask = in.read()) != -1) {
+				if (runCount == masks.length) {
+					masks = Arrays.copyOf(masks, runCount * 2);
+					lengths = Arrays.copyOf(lengths, runCount * 2);
+				}
+				masks[runCount] = mask;
+				lengths[runCount] = readVarLong(in);
+				runCount++;
+			}
+			return new InputReplay(seed, masks, lengths, runCount);
+		}
+	}
+
+	/**
+	 * @return The terrain seed of the recorded run.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The number of recorded ticks.
+	 */
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * @return True once every recorded tick was replayed.
+	 */
+	public boolean isFinished() {
+		return run >= runCount;
+	}
+
+	/**
+	 * @return The listener reporting the replayed keys.
+	 */
+	public UserInputListener asListener() {
+		return keyboard.asListener();
+	}
+
+	/**
+	 * Sets the keys to their state in the next recorded tick. Must be called once per tick,
+	 * before the game is updated. After the last tick all keys are released.
+	 */
+	public void nextTick() {
+		keyboard.endFrame();
+		int mask = 0;
+		if (!isFinished()) {
+			mask = masks[run];
+			tickInRun++;
+			if (tickInRun == lengths[run]) {
+				run++;
+				tickInRun = 0;
+			}
+		}
+		for (int i = 0; i < InputRecording.KEYS.length; i++) {
+			keyboard.setPressed(InputRecording.KEYS[i], (mask & (1 << i)) != 0);
+		}
+	}
+
+	// Reads an unsigned varint, as written by InputRecorder
+	private static long readVarLong(DataInputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < Long.SIZE; shift += 7) {
+			int next = in.read();
+			if (next == -1) {
+				throw new EOFException("Truncated input recording");
+			}
+			value |= (long) (next & 0x7F) << shift;
+			if ((next & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed input recording");
+	}
+}
@@ -0,0 +1,124 @@
+package pepse.input;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A keyboard whose keys are pressed and released by code (a script, a replay) rather than
+ * by a person. It is exposed to the game as a regular UserInputListener.
+ */
+public class VirtualKeyboard {
+	// Key codes tracked; the game's keys (arrows, space, F-keys up to F12) are all below it
+	private static final int KEY_CODE_LIMIT = 256;
+
+	private final boolean[] pressed = new boolean[KEY_CODE_LIMIT];
+	private final boolean[] pressedLastFrame = new boolean[KEY_CODE_LIMIT];
+	private final UserInputListener listener = new Listener();
+
+	/**
+	 * Presses or releases a key.
+	 *
+	 * @param keyCode A key code from java.awt.event.KeyEvent.
+	 * @param down    True to press the key, false to release it.
+	 */
+	public void setPressed(int keyCode, boolean down) {
+		if (keyCode >= 0 && keyCode < KEY_CODE_LIMIT) {
+			pressed[keyCode] = down;
+		}
+	}
+
+	/**
+	 * @param keyCode A key code from java.awt.event.KeyEvent.
+	 * @return True if the key is currently pressed.
+	 */
+	public boolean isPressed(int keyCode) {
+		return keyCode >= 0 && keyCode < KEY_CODE_LIMIT && pressed[keyCode];
+	}
+
+	/**
+	 * Ends the current frame, so presses and releases made so far are no longer "this frame".
+	 * Must be called once per frame, after the game was updated.
+	 */
+	public void endFrame() {
+		System.arraycopy(pressed, 0, pressedLastFrame, 0, KEY_CODE_LIMIT);
+	}
+
+	/**
+	 * @return A listener reporting the state of this keyboard. Mouse queries report nothing pressed.
+	 */
+	public UserInputListener asListener() {
+		return listener;
+	}
+
+	// Returns true if the key went down during the current frame
+	private boolean wasPressedThisFrame(int keyCode) {
+		return isPressed(keyCode) && !pressedLastFrame[keyCode];
+	}
+
+	// Returns true if the key went up during the current frame
+	private boolean wasReleasedThisFrame(int keyCode) {
+		return keyCode >= 0 && keyCode < KEY_CODE_LIMIT && !pressed[keyCode] && pressedLastFrame[keyCode];
+	}
+
+	// The codes of all pressed keys
+	private Set<Integer> pressedKeys() {
+		Set<Integer> keys = new HashSet<>();
+		for (int keyCode = 0; keyCode < KEY_CODE_LIMIT; keyCode++) {
+			if (pressed[keyCode]) {
+				keys.add(keyCode);
+			}
+		}
+		return keys;
+	}
+
+	// Reports the state of the keyboard to the game; the mouse is never pressed and stays at the origin
+	private class Listener implements UserInputListener {
+		@Override
+		public boolean isKeyPressed(int keyCode) {
+			return isPressed(keyCode);
+		}
+
+		@Override
+		public boolean wasKeyPressedThisFrame(int keyCode) {
+			return wasPressedThisFrame(keyCode);
+		}
+
+		@Override
+		public boolean wasKeyReleasedThisFrame(int keyCode) {
+			return wasReleasedThisFrame(keyCode);
+		}
+
+		@Override
+		public Set<Integer> pressedKeys() {
+			return VirtualKeyboard.this.pressedKeys();
+		}
+
+		@Override
+		public boolean isMouseButtonPressed(int button) {
+			return false;
+		}
+
+		@Override
+		public boolean wasMouseButtonPressedThisFrame(int button) {
+			return false;
+		}
+
+		@Override
+		public boolean wasMouseButtonReleasedThisFrame(int button) {
+			return false;
+		}
+
+		@Override
+		public Vector2 getMouseScreenPos() {
+			return Vector2.ZERO;
+		}
+
+		@Override
+		public String toString() {
+			return VirtualKeyboard.class.getSimpleName();
+		}
+	}
+}
@@ -1,15 +1,28 @@
 package pepse.util;
 
 import java.awt.*;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Provides procedurally-generated colors around a pivot.
+ * The palette methods pick among a small fixed set of variations per base color instead of
+ * creating a new color every time, so objects colored this way share their Color instances
+ * (and, through RenderableCache, their renderables).
+ * <p>
+ * Methods without a random source draw from the calling thread's own generator, so threads never
+ * contend. For reproducible colors, pass a seeded source (e.g. from WorldRandom) instead.
  * @author Dan Nirel
  */
 public final class ColorSupplier {
     private static final int DEFAULT_COLOR_DELTA = 10;
-    private final static Random random = new Random();
+    // Number of variations in the palette of a base color
+    private static final int PALETTE_SIZE = 16;
+    // Palettes by base color (RGB) and delta
+    private static final Map<Long, Color[]> palettes = new ConcurrentHashMap<>();
 
     /**
      * Returns a color similar to baseColor, with a default delta.
@@ -22,6 +35,19 @@ public final class ColorSupplier {
     }
 
 
+    /**
+     * Returns a color similar to baseColor, with a default delta, drawn from the given random source.
+     * Use this overload to make colors reproducible.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param random The random source to sample from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColor(Color baseColor, RandomGenerator random) {
+        return approximateColor(baseColor, DEFAULT_COLOR_DELTA, random);
+    }
+
+
     /**
      * Returns a color similar to baseColor, with a difference of at most colorDelta.
      * Where the difference is equal along all channels
@@ -31,7 +57,21 @@ public final class ColorSupplier {
      * @return A color similar to baseColor.
      */
     public static Color approximateMonoColor(Color baseColor, int colorDelta){
-        int channel = randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta);
+        return approximateMonoColor(baseColor, colorDelta, ThreadLocalRandom.current());
+    }
+
+
+    /**
+     * Returns a color similar to baseColor, with a difference of at most colorDelta,
+     * drawn from the given random source. Where the difference is equal along all channels
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the sampled color and the base color.
+     * @param random The random source to sample from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateMonoColor(Color baseColor, int colorDelta, RandomGenerator random){
+        int channel = randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta, random);
         return new Color(channel, channel, channel);
     }
 
@@ -49,6 +89,19 @@ public final class ColorSupplier {
     }
 
 
+    /**
+     * Returns a color similar to baseColor, with a default delta, drawn from the given random source.
+     * Where the difference is equal along all channels
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param random The random source to sample from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateMonoColor(Color baseColor, RandomGenerator random) {
+        return approximateMonoColor(baseColor, DEFAULT_COLOR_DELTA, random);
+    }
+
+
     /**
      * Returns a color similar to baseColor, with a difference of at most colorDelta.
      *
@@ -57,11 +110,69 @@ public final class ColorSupplier {
      * @return A color similar to baseColor.
      */
     public static Color approximateColor(Color baseColor, int colorDelta) {
+        return approximateColor(baseColor, colorDelta, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Returns a color similar to baseColor, with a difference of at most colorDelta,
+     * drawn from the given random source.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the sampled color and the base color.
+     * @param random The random source to sample from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColor(Color baseColor, int colorDelta, RandomGenerator random) {
 
         return new Color(
-                randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta),
-                randomChannelInRange(baseColor.getGreen()-colorDelta, baseColor.getGreen()+colorDelta),
-                randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta));
+                randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta, random),
+                randomChannelInRange(baseColor.getGreen()-colorDelta, baseColor.getGreen()+colorDelta, random),
+                randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta, random));
+    }
+
+    /**
+     * Returns one of a fixed palette of colors similar to baseColor, with a default delta.
+     * The same base color always has the same palette, and the returned instances are shared.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param random The random source picking the palette entry.
+     * @return A shared color similar to baseColor.
+     */
+    public static Color paletteColor(Color baseColor, RandomGenerator random) {
+        return paletteColor(baseColor, DEFAULT_COLOR_DELTA, random);
+    }
+
+    /**
+     * Returns one of a fixed palette of colors similar to baseColor, with a difference of at most
+     * colorDelta. The same base color and delta always have the same palette, and the returned
+     * instances are shared.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the palette colors and the base color.
+     * @param random The random source picking the palette entry.
+     * @return A shared color similar to baseColor.
+     */
+    public static Color paletteColor(Color baseColor, int colorDelta, RandomGenerator random) {
+        long key = (baseColor.getRGB() & 0xFFFFFFFFL) << Integer.SIZE | colorDelta;
+        Color[] palette = palettes.computeIfAbsent(key, k -> createPalette(baseColor, colorDelta, k));
+        return palette[random.nextInt(PALETTE_SIZE)];
+    }
+
+    /**
+     * Creates the palette of a base color. Seeded by the key, so it is the same in every run.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) from the base color.
+     * @param seed The seed of the variations.
+     * @return PALETTE_SIZE colors similar to baseColor.
+     */
+    private static Color[] createPalette(Color baseColor, int colorDelta, long seed) {
+        Random paletteRandom = new Random(seed);
+        Color[] palette = new Color[PALETTE_SIZE];
+        for (int i = 0; i < PALETTE_SIZE; i++) {
+            palette[i] = approximateColor(baseColor, colorDelta, paletteRandom);
+        }
+        return palette;
     }
 
     /**
@@ -69,9 +180,10 @@ public final class ColorSupplier {
      *
      * @param min The lower bound of the given range.
      * @param max The upper bound of the given range.
+     * @param random The random source to sample from.
      * @return A random number in the range [min, max], clipped to [0,255].
      */
-    private static int randomChannelInRange(int min, int max) {
+    private static int randomChannelInRange(int min, int max, RandomGenerator random) {
         int channel = random.nextInt(max-min+1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
@@ -6,6 +6,12 @@ public class NoiseGenerator {
     private int[] p;
     private int[] permutation;
     private double startPoint;
+    // The scale of each octave summed by noise(), from startPoint down to 1.
+    private double[] octaves;
+    // The y coordinate is always 0 before the seed offset, so its lattice cell and fade are constant.
+    private int seedY;
+    private double seedYFraction;
+    private double seedYFade;
 
     /**
      * The constructor of the NoiseGenerator class.
@@ -55,6 +61,21 @@ public class NoiseGenerator {
             p[256 + i] = p[i] = permutation[i];
         }
 
+        int octaveCount = 0;
+        for (double currentPoint = startPoint; currentPoint >= 1; currentPoint /= 2.0) {
+            octaveCount++;
+        }
+        this.octaves = new double[octaveCount];
+        double currentPoint = startPoint;
+        for (int i = 0; i < octaveCount; i++) {
+            octaves[i] = currentPoint;
+            currentPoint /= 2.0;
+        }
+
+        double y = this.seed;
+        this.seedY = (int) Math.floor(y) & 255;
+        this.seedYFraction = y - Math.floor(y);
+        this.seedYFade = fade(seedYFraction);
     }
 
     /**
@@ -73,50 +94,85 @@ public class NoiseGenerator {
      */
     public double noise(double x, double factor) {
         double value = 0.0;
-        double currentPoint = startPoint;
 
-        while (currentPoint >= 1) {
-            value += smoothNoise((x / currentPoint), 0, 0) * currentPoint;
-            currentPoint /= 2.0;
+        for (double octave : octaves) {
+            value += smoothNoise(x / octave) * octave;
         }
 
         return value * factor / startPoint;
     }
 
+    /**
+     * Fills out[offset .. offset + count) with noise(startX + i * stepX, factor).
+     * The results are identical to calling noise() for every point, without any allocation.
+     *
+     * @param startX the x of the first point.
+     * @param stepX the distance between two consecutive points.
+     * @param factor describes how large the noise should be, as in noise().
+     * @param out the array to fill.
+     * @param offset the index in out of the first point.
+     * @param count the number of points.
+     */
+    public void noise(double startX, double stepX, double factor, double[] out, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            double x = startX + i * stepX;
+            double value = 0.0;
+            for (double octave : octaves) {
+                value += smoothNoise(x / octave) * octave;
+            }
+            out[offset + i] = value * factor / startPoint;
+        }
+    }
+
+    /**
+     * Fills out[offset .. offset + count) with (float) noise(startX + i * stepX, factor).
+     * Octaves are still summed in double precision, so the results match noise() exactly.
+     *
+     * @param startX the x of the first point.
+     * @param stepX the distance between two consecutive points.
+     * @param factor describes how large the noise should be, as in noise().
+     * @param out the array to fill.
+     * @param offset the index in out of the first point.
+     * @param count the number of points.
+     */
+    public void noise(double startX, double stepX, double factor, float[] out, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            double x = startX + i * stepX;
+            double value = 0.0;
+            for (double octave : octaves) {
+                value += smoothNoise(x / octave) * octave;
+            }
+            out[offset + i] = (float) (value * factor / startPoint);
+        }
+    }
+
 
-    private double smoothNoise(double x, double y, double z) {
-        // Offset each coordinate by the seed value
+    /*
+     * Perlin noise at (x, 0, 0). This is the classic 3D improved noise with the y and z
+     * dimensions folded in: y is always the seed, so its cell and fade are precomputed, and
+     * z is always 0, so the fade along z is 0 and the four corners at z + 1 never contribute.
+     */
+    private double smoothNoise(double x) {
+        // Offset the coordinate by the seed value
         x += this.seed;
-        y += this.seed;
         x += this.seed;
-
-        int X = (int) Math.floor(x) & 255; // FIND UNIT CUBE THAT
-        int Y = (int) Math.floor(y) & 255; // CONTAINS POINT.
-        int Z = (int) Math.floor(z) & 255;
-
-        x -= Math.floor(x); // FIND RELATIVE X,Y,Z
-        y -= Math.floor(y); // OF POINT IN CUBE.
-        z -= Math.floor(z);
-
-        double u = fade(x); // COMPUTE FADE CURVES
-        double v = fade(y); // FOR EACH OF X,Y,Z.
-        double w = fade(z);
-
-        int A = p[X] + Y;
-        int AA = p[A] + Z;
-        int AB = p[A + 1] + Z; // HASH COORDINATES OF
-        int B = p[X + 1] + Y;
-        int BA = p[B] + Z;
-        int BB = p[B + 1] + Z; // THE 8 CUBE CORNERS,
-
-        return lerp(w, lerp(v, lerp(u, grad(p[AA], x, y, z),    // AND ADD
-                                grad(p[BA], x - 1, y, z)), // BLENDED
-                        lerp(u, grad(p[AB], x, y - 1, z),    // RESULTS
-                                grad(p[BB], x - 1, y - 1, z))),// FROM 8
-                lerp(v, lerp(u, grad(p[AA + 1], x, y, z - 1),    // CORNERS
-                                grad(p[BA + 1], x - 1, y, z - 1)), // OF CUBE
-                        lerp(u, grad(p[AB + 1], x, y - 1, z - 1),
-                                grad(p[BB + 1], x - 1, y - 1, z - 1))));
+        double y = seedYFraction;
+
+        int X = (int) Math.floor(x) & 255; // FIND UNIT SQUARE THAT CONTAINS POINT.
+        x -= Math.floor(x);                // FIND RELATIVE X OF POINT IN SQUARE.
+        double u = fade(x);                // COMPUTE FADE CURVE FOR X.
+
+        int A = p[X] + seedY;
+        int AA = p[A];
+        int AB = p[A + 1]; // HASH COORDINATES OF
+        int B = p[X + 1] + seedY;
+        int BA = p[B];
+        int BB = p[B + 1]; // THE 4 SQUARE CORNERS,
+
+        return lerp(seedYFade, lerp(u, grad(p[AA], x, y, 0),     // AND ADD BLENDED
+                        grad(p[BA], x - 1, y, 0)),                // RESULTS FROM
+                lerp(u, grad(p[AB], x, y - 1, 0),                 // 4 CORNERS
+                        grad(p[BB], x - 1, y - 1, 0)));           // OF SQUARE
     }
 
     private double fade(double t) {
@@ -0,0 +1,281 @@
+package pepse.util;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Lightweight frame profiling: time spent per subsystem, rolling frame time percentiles,
+ * the allocation rate of the game thread and the number of game objects per layer.
+ * Subsystems wrap their update in {@code start()} / {@code stop(...)}; when the profiler is
+ * disabled both are a single static check, so the instrumentation can stay in place.
+ * <p>
+ * Every SAMPLE_INTERVAL seconds the measurements are summarized into a sample, which can be
+ * read through the getters (e.g. by an overlay) and appended to a CSV file.
+ * The profiler is only used from the game thread.
+ */
+public final class Profiler {
+    /**
+     * The profiled subsystems.
+     */
+    public enum Section {
+        /** The whole update of all game objects, including WIND, CLOUDS, RAIN and AVATAR. */
+        GAME_UPDATE,
+        /** Chunk streaming: generating, building, culling and unloading terrain and trees. */
+        CHUNKS,
+        /** Leaf wind animation. */
+        WIND,
+        /** Cloud spawning and retirement. */
+        CLOUDS,
+        /** Rain particle simulation. */
+        RAIN,
+        /** Avatar movement and animation. */
+        AVATAR
+    }
+
+    /** The layers whose object counts are sampled, in CSV column order. */
+    public static final int[] LAYERS = {
+            Layer.BACKGROUND, Layer.STATIC_OBJECTS, Layer.DEFAULT, Layer.FOREGROUND, Layer.UI
+    };
+    private static final String[] LAYER_NAMES = {
+            "background", "static_objects", "default", "foreground", "ui"
+    };
+
+    // Time between samples (in seconds)
+    private static final float SAMPLE_INTERVAL = 1f;
+    // Number of recent frames the percentiles are computed over
+    private static final int FRAME_HISTORY = 512;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private static boolean enabled = false;
+
+    private static final long[] sectionNanos = new long[Section.values().length];
+    private static final float[] frameTimes = new float[FRAME_HISTORY];
+    private static final float[] sortedFrameTimes = new float[FRAME_HISTORY];
+    private static int frameTimeCount = 0;
+    private static int nextFrameTime = 0;
+    private static int framesSinceSample = 0;
+    private static float timeSinceSample = 0;
+    private static float totalTime = 0;
+    private static long allocatedAtSample = -1;
+
+    private static final double[] sectionMillis = new double[Section.values().length];
+    private static final int[] layerCounts = new int[LAYERS.length];
+    private static double frameTimeP50 = 0;
+    private static double frameTimeP99 = 0;
+    private static double allocationRate = 0;
+
+    private static PrintWriter csv;
+
+    private Profiler() {
+    }
+
+    /**
+     * @return True if measurements are being taken.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns measuring on or off. Turning it on starts a fresh sample.
+     *
+     * @param enabled True to measure.
+     */
+    public static void setEnabled(boolean enabled) {
+        if (enabled && !Profiler.enabled) {
+            resetSample();
+            allocatedAtSample = allocatedBytes();
+        }
+        Profiler.enabled = enabled;
+    }
+
+    /**
+     * Starts appending a CSV row per sample to the given file, and enables the profiler.
+     *
+     * @param file The file to write; it is overwritten.
+     * @throws IOException If the file cannot be created.
+     */
+    public static void startCsvDump(Path file) throws IOException {
+        csv = new PrintWriter(Files.newBufferedWriter(file));
+        StringBuilder header = new StringBuilder("time_s,frames,frame_p50_ms,frame_p99_ms,alloc_mb_per_s");
+        for (Section section : Section.values()) {
+            header.append(',').append(section.name().toLowerCase(Locale.ROOT)).append("_ms");
+        }
+        for (String layerName : LAYER_NAMES) {
+            header.append(",objects_").append(layerName);
+        }
+        csv.println(header);
+        csv.flush();
+        setEnabled(true);
+    }
+
+    /**
+     * @return True if samples are being written to a CSV file.
+     */
+    public static boolean isDumpingCsv() {
+        return csv != null;
+    }
+
+    /**
+     * Marks the start of a timed section.
+     *
+     * @return The start time, to pass to stop.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Marks the end of a timed section, adding its duration to the section's total.
+     *
+     * @param section The section being timed.
+     * @param start   The value returned by the matching start call.
+     */
+    public static void stop(Section section, long start) {
+        if (enabled) {
+            sectionNanos[section.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Records the end of a frame, and takes a sample once SAMPLE_INTERVAL has passed.
+     * Must be called once per frame.
+     *
+     * @param deltaTime   Duration of the frame (in seconds).
+     * @param gameObjects The game objects, counted per layer when sampling.
+     */
+    public static void endFrame(float deltaTime, GameObjectCollection gameObjects) {
+        if (!enabled) {
+            return;
+        }
+        frameTimes[nextFrameTime] = deltaTime;
+        nextFrameTime = (nextFrameTime + 1) % FRAME_HISTORY;
+        frameTimeCount = Math.min(frameTimeCount + 1, FRAME_HISTORY);
+        framesSinceSample++;
+        timeSinceSample += deltaTime;
+        totalTime += deltaTime;
+        if (timeSinceSample >= SAMPLE_INTERVAL) {
+            takeSample(gameObjects);
+        }
+    }
+
+    /**
+     * @param section A profiled section.
+     * @return Average time spent in the section per frame during the last sample (in milliseconds).
+     */
+    public static double getSectionMillis(Section section) {
+        return sectionMillis[section.ordinal()];
+    }
+
+    /**
+     * @return Median frame time over the recent frames (in milliseconds).
+     */
+    public static double getFrameTimeP50() {
+        return frameTimeP50;
+    }
+
+    /**
+     * @return 99th percentile frame time over the recent frames (in milliseconds).
+     */
+    public static double getFrameTimeP99() {
+        return frameTimeP99;
+    }
+
+    /**
+     * @return Allocation rate of the game thread during the last sample (in MB per second),
+     * or 0 if the JVM cannot measure it.
+     */
+    public static double getAllocationRate() {
+        return allocationRate;
+    }
+
+    /**
+     * @param layerIndex Index into LAYERS.
+     * @return Number of game objects in the layer at the last sample.
+     */
+    public static int getLayerCount(int layerIndex) {
+        return layerCounts[layerIndex];
+    }
+
+    // Summarizes the measurements since the previous sample, and writes them out
+    private static void takeSample(GameObjectCollection gameObjects) {
+        for (int i = 0; i < sectionNanos.length; i++) {
+            sectionMillis[i] = sectionNanos[i] / NANOS_PER_MILLI / framesSinceSample;
+        }
+
+        System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, frameTimeCount);
+        Arrays.sort(sortedFrameTimes, 0, frameTimeCount);
+        frameTimeP50 = percentile(0.5) * 1000;
+        frameTimeP99 = percentile(0.99) * 1000;
+
+        long allocated = allocatedBytes();
+        allocationRate = allocated < 0 || allocatedAtSample < 0 ? 0 :
+                (allocated - allocatedAtSample) / BYTES_PER_MEGABYTE / timeSinceSample;
+        allocatedAtSample = allocated;
+
+        for (int i = 0; i < LAYERS.length; i++) {
+            int count = 0;
+            for (GameObject ignored : gameObjects.objectsInLayer(LAYERS[i])) {
+                count++;
+            }
+            layerCounts[i] = count;
+        }
+
+        if (csv != null) {
+            writeCsvRow();
+        }
+        resetSample();
+    }
+
+    // Returns the given percentile of the sorted recent frame times (in seconds)
+    private static double percentile(double fraction) {
+        if (frameTimeCount == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * frameTimeCount) - 1;
+        return sortedFrameTimes[Math.max(0, index)];
+    }
+
+    // Appends the last sample to the CSV file
+    private static void writeCsvRow() {
+        StringBuilder row = new StringBuilder();
+        row.append(String.format(Locale.ROOT, "%.3f,%d,%.3f,%.3f,%.3f",
+                totalTime, framesSinceSample, frameTimeP50, frameTimeP99, allocationRate));
+        for (double millis : sectionMillis) {
+            row.append(String.format(Locale.ROOT, ",%.4f", millis));
+        }
+        for (int count : layerCounts) {
+            row.append(',').append(count);
+        }
+        csv.println(row);
+        csv.flush();
+    }
+
+    // Clears the per-sample accumulators
+    private static void resetSample() {
+        Arrays.fill(sectionNanos, 0);
+        framesSinceSample = 0;
+        timeSinceSample = 0;
+    }
+
+    // Bytes allocated so far by the current thread, or -1 if the JVM cannot tell
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
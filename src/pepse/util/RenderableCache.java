@@ -0,0 +1,41 @@
+package pepse.util;
+
+import danogl.gui.rendering.OvalRenderable;
+import danogl.gui.rendering.RectangleRenderable;
+
+import java.awt.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared plain-colored renderables. A rectangle or oval renderable only holds its color,
+ * so every object of the same color can draw with the same instance. Combined with
+ * ColorSupplier's palettes, thousands of blocks and leaves use a few dozen renderables.
+ */
+public final class RenderableCache {
+    private static final Map<Color, RectangleRenderable> rectangles = new ConcurrentHashMap<>();
+    private static final Map<Color, OvalRenderable> ovals = new ConcurrentHashMap<>();
+
+    private RenderableCache() {
+    }
+
+    /**
+     * Returns the shared rectangle renderable of a color.
+     *
+     * @param color The fill color.
+     * @return A rectangle renderable of that color.
+     */
+    public static RectangleRenderable rectangle(Color color) {
+        return rectangles.computeIfAbsent(color, RectangleRenderable::new);
+    }
+
+    /**
+     * Returns the shared oval renderable of a color.
+     *
+     * @param color The fill color.
+     * @return An oval renderable of that color.
+     */
+    public static OvalRenderable oval(Color color) {
+        return ovals.computeIfAbsent(color, OvalRenderable::new);
+    }
+}
@@ -0,0 +1,134 @@
+package pepse.util;
+
+import danogl.gui.rendering.ImageRenderable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Many sprites packed into a single image, with an index of where each sprite is.
+ * Reading an atlas decodes one image instead of one per sprite; sprites are views into it
+ * (see SpriteAtlasPacker for how atlases are made).
+ * <p>
+ * The index is a text file with a line per sprite: {@code <name> <x> <y> <width> <height>}.
+ * Empty lines and lines starting with '#' are ignored.
+ */
+public class SpriteAtlas {
+    private final BufferedImage image;
+    private final Map<String, BufferedImage> sprites = new HashMap<>();
+
+    private SpriteAtlas(BufferedImage image) {
+        this.image = image;
+    }
+
+    /**
+     * Reads an atlas. Paths are looked up on the classpath first, then in the file system.
+     * Safe to call from any thread.
+     *
+     * @param imagePath Path of the atlas image.
+     * @param indexPath Path of the atlas index.
+     * @return The atlas.
+     * @throws IOException If either file cannot be read, or the index does not fit the image.
+     */
+    public static SpriteAtlas read(String imagePath, String indexPath) throws IOException {
+        BufferedImage image;
+        try (InputStream in = open(imagePath)) {
+            image = ImageIO.read(in);
+        }
+        if (image == null) {
+            throw new IOException(imagePath + " is not a readable image");
+        }
+        SpriteAtlas atlas = new SpriteAtlas(image);
+        try (BufferedReader index = new BufferedReader(
+                new InputStreamReader(open(indexPath), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = index.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    atlas.addSprite(line, indexPath);
+                }
+            }
+        }
+        return atlas;
+    }
+
+    /**
+     * @param name The name of a sprite.
+     * @return True if the atlas has the sprite.
+     */
+    public boolean contains(String name) {
+        return sprites.containsKey(name);
+    }
+
+    /**
+     * Returns a renderable of a sprite. The sprite's pixels are shared with the atlas, not copied.
+     *
+     * @param name The name of the sprite.
+     * @return A renderable drawing the sprite.
+     * @throws IllegalArgumentException If the atlas has no such sprite.
+     */
+    public ImageRenderable sprite(String name) {
+        BufferedImage sprite = sprites.get(name);
+        if (sprite == null) {
+            throw new IllegalArgumentException("No sprite named " + name);
+        }
+        return new ImageRenderable(sprite);
+    }
+
+    /**
+     * Returns the renderables of a numbered sequence of sprites, named prefix_0, prefix_1, ...
+     *
+     * @param prefix The name of the sequence.
+     * @param count  The number of sprites in the sequence.
+     * @return The renderables, in order.
+     * @throws IllegalArgumentException If a sprite of the sequence is missing.
+     */
+    public ImageRenderable[] sequence(String prefix, int count) {
+        ImageRenderable[] frames = new ImageRenderable[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = sprite(prefix + "_" + i);
+        }
+        return frames;
+    }
+
+    // Parses an index line and adds its sprite
+    private void addSprite(String line, String indexPath) throws IOException {
+        String[] fields = line.split("\\s+");
+        if (fields.length != 5) {
+            throw new IOException("Bad line in " + indexPath + ": " + line);
+        }
+        try {
+            int x = Integer.parseInt(fields[1]);
+            int y = Integer.parseInt(fields[2]);
+            int width = Integer.parseInt(fields[3]);
+            int height = Integer.parseInt(fields[4]);
+            sprites.put(fields[0], image.getSubimage(x, y, width, height));
+        } catch (NumberFormatException | java.awt.image.RasterFormatException e) {
+            throw new IOException("Bad line in " + indexPath + ": " + line, e);
+        }
+    }
+
+    // Opens a resource from the classpath, or else from the file system
+    private static InputStream open(String path) throws IOException {
+        InputStream resource = SpriteAtlas.class.getClassLoader().getResourceAsStream(path);
+        if (resource != null) {
+            return resource;
+        }
+        Path file = Paths.get(path);
+        if (!Files.exists(file)) {
+            throw new FileNotFoundException(path);
+        }
+        return Files.newInputStream(file);
+    }
+}
@@ -0,0 +1,119 @@
+package pepse.util;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Packs the PNG sprites of a directory into an atlas image and index, as read by SpriteAtlas.
+ * Each sprite is named after its file (without the extension). Sprites named {@code <prefix>_<n>}
+ * form a sequence; each sequence is packed on its own row, in order.
+ * <p>
+ * Run as {@code SpriteAtlasPacker <sprite directory> <atlas image> <atlas index>}, e.g.
+ * {@code SpriteAtlasPacker src/assets/sprites/avatar src/assets/avatar_atlas.png src/assets/avatar_atlas.txt}.
+ */
+public final class SpriteAtlasPacker {
+    private static final String SPRITE_EXTENSION = ".png";
+
+    private SpriteAtlasPacker() {
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args The sprite directory, the atlas image to write and the atlas index to write.
+     * @throws IOException If a sprite cannot be read or the atlas cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException(
+                    "Usage: SpriteAtlasPacker <sprite directory> <atlas image> <atlas index>");
+        }
+        pack(Paths.get(args[0]), Paths.get(args[1]), Paths.get(args[2]));
+    }
+
+    /**
+     * Packs the sprites of a directory into an atlas.
+     *
+     * @param spriteDirectory Directory of PNG sprites.
+     * @param atlasImage      The atlas image to write; it is overwritten.
+     * @param atlasIndex      The atlas index to write; it is overwritten.
+     * @throws IOException If a sprite cannot be read or the atlas cannot be written.
+     */
+    public static void pack(Path spriteDirectory, Path atlasImage, Path atlasIndex) throws IOException {
+        // Group sprites into rows by sequence, ordered by name and frame number
+        TreeMap<String, TreeMap<Integer, Path>> rows = new TreeMap<>();
+        try (Stream<Path> files = Files.list(spriteDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (!fileName.toLowerCase(Locale.ROOT).endsWith(SPRITE_EXTENSION)) {
+                    continue;
+                }
+                String name = fileName.substring(0, fileName.length() - SPRITE_EXTENSION.length());
+                int separator = name.lastIndexOf('_');
+                String prefix = name;
+                int frame = 0;
+                if (separator > 0 && name.substring(separator + 1).matches("\\d+")) {
+                    prefix = name.substring(0, separator);
+                    frame = Integer.parseInt(name.substring(separator + 1));
+                }
+                rows.computeIfAbsent(prefix, row -> new TreeMap<>()).put(frame, file);
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        List<BufferedImage> sprites = new ArrayList<>();
+        List<Rectangle> placements = new ArrayList<>();
+        int width = 0;
+        int height = 0;
+        for (TreeMap<Integer, Path> row : rows.values()) {
+            int x = 0;
+            int rowHeight = 0;
+            for (Path file : row.values()) {
+                BufferedImage sprite = ImageIO.read(file.toFile());
+                if (sprite == null) {
+                    throw new IOException(file + " is not a readable image");
+                }
+                String fileName = file.getFileName().toString();
+                names.add(fileName.substring(0, fileName.length() - SPRITE_EXTENSION.length()));
+                sprites.add(sprite);
+                placements.add(new Rectangle(x, height, sprite.getWidth(), sprite.getHeight()));
+                x += sprite.getWidth();
+                rowHeight = Math.max(rowHeight, sprite.getHeight());
+            }
+            width = Math.max(width, x);
+            height += rowHeight;
+        }
+        if (sprites.isEmpty()) {
+            throw new IOException("No sprites in " + spriteDirectory);
+        }
+
+        BufferedImage atlas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = atlas.createGraphics();
+        for (int i = 0; i < sprites.size(); i++) {
+            graphics.drawImage(sprites.get(i), placements.get(i).x, placements.get(i).y, null);
+        }
+        graphics.dispose();
+        ImageIO.write(atlas, "png", atlasImage.toFile());
+
+        try (PrintWriter index = new PrintWriter(Files.newBufferedWriter(atlasIndex))) {
+            index.println("# Generated by SpriteAtlasPacker from " + spriteDirectory.getFileName());
+            index.println("# name x y width height");
+            for (int i = 0; i < names.size(); i++) {
+                Rectangle placement = placements.get(i);
+                index.println(names.get(i) + " " + placement.x + " " + placement.y + " "
+                        + placement.width + " " + placement.height);
+            }
+        }
+    }
+}
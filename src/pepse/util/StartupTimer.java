@@ -0,0 +1,80 @@
+package pepse.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures the game's startup: how long each initialization phase took on the main thread,
+ * how long background loading tasks took, and the time to the first frame.
+ * The report is printed once, when the first frame is done.
+ */
+public final class StartupTimer {
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<String> tasks = new ArrayList<>();
+    private static long beginNanos = System.nanoTime();
+    private static long lastMarkNanos = beginNanos;
+    private static boolean reported = false;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Starts measuring. Called as early as possible, e.g. first thing in main.
+     */
+    public static synchronized void begin() {
+        beginNanos = System.nanoTime();
+        lastMarkNanos = beginNanos;
+    }
+
+    /**
+     * Marks the end of a startup phase on the main thread; it lasted since the previous mark.
+     *
+     * @param phase Name of the phase.
+     */
+    public static synchronized void mark(String phase) {
+        long now = System.nanoTime();
+        phases.add(format(phase, now - lastMarkNanos));
+        lastMarkNanos = now;
+    }
+
+    /**
+     * Records a task that ran in the background during startup. Safe to call from any thread.
+     *
+     * @param task       Name of the task.
+     * @param startNanos System.nanoTime() when the task started.
+     */
+    public static synchronized void recordTask(String task, long startNanos) {
+        tasks.add(format(task, System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Prints the startup report the first time it is called; later calls do nothing.
+     * Called at the end of the first frame.
+     */
+    public static synchronized void firstFrameDone() {
+        if (reported) {
+            return;
+        }
+        reported = true;
+        long now = System.nanoTime();
+        mark("first frame");
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "Startup: first frame after %.1f ms (%d ms since JVM start, %d cores)",
+                (now - beginNanos) / NANOS_PER_MILLI, sinceJvmStart, Runtime.getRuntime().availableProcessors()));
+        report.append("\n  main thread: ").append(String.join(", ", phases));
+        if (!tasks.isEmpty()) {
+            report.append("\n  background: ").append(String.join(", ", tasks));
+        }
+        System.out.println(report);
+    }
+
+    // Formats a named duration
+    private static String format(String name, long nanos) {
+        return String.format(Locale.ROOT, "%s %.1f ms", name, nanos / NANOS_PER_MILLI);
+    }
+}
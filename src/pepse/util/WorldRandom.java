@@ -0,0 +1,49 @@
+package pepse.util;
+
+import java.util.Random;
+
+/**
+ * Derives independent, reproducible random sources from the world seed and a world position.
+ * The same seed, position and salt always yield the same sequence, so any part of the world
+ * can be dropped and regenerated bit-for-bit, from any thread and in any order.
+ */
+public final class WorldRandom {
+    // The SplitMix64 increment (odd, golden-ratio based)
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private WorldRandom() {
+    }
+
+    /**
+     * Returns a new random source for a given world position.
+     *
+     * @param worldSeed The world (terrain) seed.
+     * @param position  A world coordinate, e.g. the x of a column, a tree or a chunk index.
+     * @param salt      Separates unrelated uses of the same position (e.g. terrain colors and trees).
+     * @return A random source seeded deterministically from the three values.
+     */
+    public static Random at(long worldSeed, long position, long salt) {
+        return new Random(hash(worldSeed, position, salt));
+    }
+
+    /**
+     * Hashes the three values into a well-mixed 64 bit seed.
+     *
+     * @param worldSeed The world (terrain) seed.
+     * @param position  A world coordinate.
+     * @param salt      Separates unrelated uses of the same position.
+     * @return The hash.
+     */
+    public static long hash(long worldSeed, long position, long salt) {
+        long hash = mix(worldSeed + GOLDEN_GAMMA);
+        hash = mix(hash ^ (position * GOLDEN_GAMMA));
+        return mix(hash ^ (salt * GOLDEN_GAMMA));
+    }
+
+    // The SplitMix64 finalizer: every input bit affects every output bit
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
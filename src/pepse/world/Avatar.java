@@ -2,21 +2,21 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.ImageReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
-import danogl.gui.rendering.ImageRenderable;
 import danogl.util.Vector2;
+import pepse.util.Profiler;
 import pepse.world.trees.Fruit;
 
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * The player's avatar. Handles movement, jumping, gravity, energy system,
  * and animation transitions based on input.
+ * The animation is driven by a small state machine (idle, run, jump); the renderer is only
+ * touched when the state or facing direction changes, so a frame allocates nothing.
  */
 public class Avatar extends GameObject {
 	private static final float AVATAR_SIZE = 50f;
@@ -27,28 +27,15 @@ public class Avatar extends GameObject {
 	private static final float JUMP_ENERGY_COST = 10f;
 	private static final float MOVE_ENERGY_COST = 0.5f;
 	private static final float IDLE_ENERGY_RECOVERY = 1f;
-	private static final float IDLE_FRAME_DURATION = 0.2f;
-	private static final float JUMP_FRAME_DURATION = 0.2f;
-	private static final float RUN_FRAME_DURATION = 0.1f;
-	private static final String[] IDLE_SPRITES = {
-			"assets/idle_0.png", "assets/idle_1.png",
-			"assets/idle_2.png", "assets/idle_3.png"
-	};
-	private static final String[] JUMP_SPRITES = {
-			"assets/jump_0.png", "assets/jump_1.png",
-			"assets/jump_2.png", "assets/jump_3.png"
-	};
-	private static final String[] RUN_SPRITES = {
-			"assets/run_0.png", "assets/run_1.png", "assets/run_2.png",
-			"assets/run_3.png", "assets/run_4.png", "assets/run_5.png"
-	};
+
+	// Animation states; each has its own animation
+	private enum State { IDLE, RUN, JUMP }
 
 	private float energy = MAX_ENERGY;
 	private final UserInputListener inputListener;
-	private final AnimationRenderable idleAnimation;
-	private final AnimationRenderable jumpAnimation;
-	private final AnimationRenderable runAnimation;
+	private final AvatarSprites sprites;
 	private boolean isFacingLeft = false;
+	private State state = State.IDLE;
 	private final List<JumpObserver> observers = new ArrayList<>();
 
 	/**
@@ -56,33 +43,35 @@ public class Avatar extends GameObject {
 	 *
 	 * @param bottomLeftCorner Initial position of the avatar.
 	 * @param inputListener    Handles user keyboard input.
-	 * @param imageReader      Loads avatar sprite images.
+	 * @param sprites          The avatar's animations, see AvatarSprites.load.
 	 */
 	public Avatar(Vector2 bottomLeftCorner,
 				  UserInputListener inputListener,
-				  ImageReader imageReader) {
+				  AvatarSprites sprites) {
 		super(new Vector2(bottomLeftCorner.x(), bottomLeftCorner.y() - AVATAR_SIZE),
 				Vector2.ONES.mult(AVATAR_SIZE),
-				imageReader.readImage(IDLE_SPRITES[0], true));
+				sprites.idle());
 		this.inputListener = inputListener;
 		physics().preventIntersectionsFromDirection(Vector2.ZERO);
 		transform().setAccelerationY(GRAVITY);
-		idleAnimation = new AnimationRenderable(loadFrames(IDLE_SPRITES, imageReader), IDLE_FRAME_DURATION);
-		jumpAnimation = new AnimationRenderable(loadFrames(JUMP_SPRITES, imageReader), JUMP_FRAME_DURATION);
-		runAnimation = new AnimationRenderable(loadFrames(RUN_SPRITES, imageReader), RUN_FRAME_DURATION);
+		this.sprites = sprites;
 	}
 
 	/**
-	 * Loads images from given paths into an array of ImageRenderable.
+	 * Constructs the avatar object with ready-made animations.
 	 *
-	 * @param paths        Paths to sprite images.
-	 * @param imageReader  Reader used to load images.
-	 * @return Array of loaded renderables.
+	 * @param bottomLeftCorner Initial position of the avatar.
+	 * @param inputListener    Handles user keyboard input.
+	 * @param idleAnimation    Animation shown while standing.
+	 * @param jumpAnimation    Animation shown while in the air.
+	 * @param runAnimation     Animation shown while running on the ground.
 	 */
-	private ImageRenderable[] loadFrames(String[] paths, ImageReader imageReader) {
-		return Arrays.stream(paths)
-				.map(path -> imageReader.readImage(path, true))
-				.toArray(ImageRenderable[]::new);
+	public Avatar(Vector2 bottomLeftCorner,
+				  UserInputListener inputListener,
+				  AnimationRenderable idleAnimation,
+				  AnimationRenderable jumpAnimation,
+				  AnimationRenderable runAnimation) {
+		this(bottomLeftCorner, inputListener, AvatarSprites.of(idleAnimation, jumpAnimation, runAnimation));
 	}
 
 	/**
@@ -93,48 +82,79 @@ public class Avatar extends GameObject {
 	@Override
 	public void update(float deltaTime) {
 		super.update(deltaTime);
+		long start = Profiler.start();
+		// Read the velocity once; it is only changed below through the transform
+		Vector2 velocity = getVelocity();
+		float yVel = velocity.y();
 		float xVel = 0;
 		boolean isMoving = false;
+		boolean facingLeft = isFacingLeft;
 
 		// Handle horizontal movement and energy consumption
 		if (inputListener.isKeyPressed(KeyEvent.VK_LEFT) && energy >= MOVE_ENERGY_COST) {
 			xVel -= MOVE_SPEED;
 			energy -= MOVE_ENERGY_COST;
-			isFacingLeft = true;
+			facingLeft = true;
 			isMoving = true;
 		}
 		if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT) && energy >= MOVE_ENERGY_COST) {
 			xVel += MOVE_SPEED;
 			energy -= MOVE_ENERGY_COST;
-			isFacingLeft = false;
+			facingLeft = false;
 			isMoving = true;
 		}
-		transform().setVelocityX(xVel);
+		if (velocity.x() != xVel) {
+			transform().setVelocityX(xVel);
+		}
 
 		// Handle jump if on ground and has enough energy
 		if (inputListener.isKeyPressed(KeyEvent.VK_SPACE) &&
-				getVelocity().y() == 0 && energy >= JUMP_ENERGY_COST) {
+				yVel == 0 && energy >= JUMP_ENERGY_COST) {
 			transform().setVelocityY(JUMP_SPEED);
+			yVel = JUMP_SPEED;
 			energy -= JUMP_ENERGY_COST;
-			for (JumpObserver observer : observers) {
-				observer.onJump();
+			for (int i = 0; i < observers.size(); i++) {
+				observers.get(i).onJump();
 			}
 		}
 
 		// Recover energy when idle
-		if (!isMoving && getVelocity().y() == 0) {
+		if (!isMoving && yVel == 0) {
 			energy = Math.min(MAX_ENERGY, energy + IDLE_ENERGY_RECOVERY);
 		}
 
 		// Update animation state
-		if (getVelocity().y() != 0) {
-			renderer().setRenderable(jumpAnimation);
+		if (yVel != 0) {
+			enterState(State.JUMP);
 		} else if (xVel != 0) {
-			renderer().setRenderable(runAnimation);
+			enterState(State.RUN);
 		} else {
-			renderer().setRenderable(idleAnimation);
+			enterState(State.IDLE);
+		}
+		if (facingLeft != isFacingLeft) {
+			isFacingLeft = facingLeft;
+			renderer().setIsFlippedHorizontally(facingLeft);
+		}
+		Profiler.stop(Profiler.Section.AVATAR, start);
+	}
+
+	// Switches to the animation of the given state, if not in it already
+	private void enterState(State newState) {
+		if (newState == state) {
+			return;
+		}
+		state = newState;
+		switch (newState) {
+			case JUMP:
+				renderer().setRenderable(sprites.jump());
+				break;
+			case RUN:
+				renderer().setRenderable(sprites.run());
+				break;
+			default:
+				renderer().setRenderable(sprites.idle());
+				break;
 		}
-		renderer().setIsFlippedHorizontally(isFacingLeft);
 	}
 
 	/**
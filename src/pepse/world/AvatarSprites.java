@@ -0,0 +1,111 @@
+package pepse.world;
+
+import danogl.gui.rendering.AnimationRenderable;
+import pepse.util.SpriteAtlas;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The avatar's animations (idle, jump and run), sliced from a single sprite atlas.
+ * Reading the atlas is the only slow part, and can happen in the background while the world
+ * is being built. Only the idle animation, shown on the first frame, is built with the atlas;
+ * the jump and run animations are built the first time they are shown.
+ */
+public class AvatarSprites {
+	private static final String ATLAS_IMAGE = "assets/avatar_atlas.png";
+	private static final String ATLAS_INDEX = "assets/avatar_atlas.txt";
+	private static final String IDLE_SPRITES = "idle";
+	private static final String JUMP_SPRITES = "jump";
+	private static final String RUN_SPRITES = "run";
+	private static final int IDLE_FRAMES = 4;
+	private static final int JUMP_FRAMES = 4;
+	private static final int RUN_FRAMES = 6;
+	private static final float IDLE_FRAME_DURATION = 0.2f;
+	private static final float JUMP_FRAME_DURATION = 0.2f;
+	private static final float RUN_FRAME_DURATION = 0.1f;
+
+	private final SpriteAtlas atlas;
+	private final AnimationRenderable idleAnimation;
+	private AnimationRenderable jumpAnimation;
+	private AnimationRenderable runAnimation;
+
+	private AvatarSprites(SpriteAtlas atlas, AnimationRenderable idleAnimation,
+						  AnimationRenderable jumpAnimation, AnimationRenderable runAnimation) {
+		this.atlas = atlas;
+		this.idleAnimation = idleAnimation;
+		this.jumpAnimation = jumpAnimation;
+		this.runAnimation = runAnimation;
+	}
+
+	/**
+	 * Reads the avatar's sprite atlas. Safe to call from any thread.
+	 *
+	 * @return The avatar's animations.
+	 * @throws IOException If the atlas cannot be read.
+	 */
+	public static AvatarSprites load() throws IOException {
+		SpriteAtlas atlas = SpriteAtlas.read(ATLAS_IMAGE, ATLAS_INDEX);
+		return new AvatarSprites(atlas,
+				new AnimationRenderable(atlas.sequence(IDLE_SPRITES, IDLE_FRAMES), IDLE_FRAME_DURATION),
+				null, null);
+	}
+
+	/**
+	 * Starts reading the avatar's sprite atlas in the background.
+	 *
+	 * @param executor Runs the reading.
+	 * @return The avatar's animations, once read. Fails with an IllegalStateException if the
+	 * atlas cannot be read.
+	 */
+	public static CompletableFuture<AvatarSprites> loadAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return load();
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot read the avatar sprites", e);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Wraps ready-made animations.
+	 *
+	 * @param idleAnimation Animation shown while standing.
+	 * @param jumpAnimation Animation shown while in the air.
+	 * @param runAnimation  Animation shown while running on the ground.
+	 * @return The avatar's animations.
+	 */
+	public static AvatarSprites of(AnimationRenderable idleAnimation, AnimationRenderable jumpAnimation,
+								   AnimationRenderable runAnimation) {
+		return new AvatarSprites(null, idleAnimation, jumpAnimation, runAnimation);
+	}
+
+	/**
+	 * @return The animation shown while standing.
+	 */
+	public AnimationRenderable idle() {
+		return idleAnimation;
+	}
+
+	/**
+	 * @return The animation shown while in the air. Built on the first call, on the game thread.
+	 */
+	public AnimationRenderable jump() {
+		if (jumpAnimation == null) {
+			jumpAnimation = new AnimationRenderable(atlas.sequence(JUMP_SPRITES, JUMP_FRAMES), JUMP_FRAME_DURATION);
+		}
+		return jumpAnimation;
+	}
+
+	/**
+	 * @return The animation shown while running on the ground. Built on the first call, on the game thread.
+	 */
+	public AnimationRenderable run() {
+		if (runAnimation == null) {
+			runAnimation = new AnimationRenderable(atlas.sequence(RUN_SPRITES, RUN_FRAMES), RUN_FRAME_DURATION);
+		}
+		return runAnimation;
+	}
+}
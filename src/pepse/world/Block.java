@@ -20,7 +20,18 @@ public class Block extends GameObject {
 	 * @param renderable    The visual representation of the block.
 	 */
 	public Block(Vector2 topLeftCorner, Renderable renderable) {
-		super(topLeftCorner, Vector2.ONES.mult(BLOCK_SIZE), renderable);
+		this(topLeftCorner, Vector2.ONES.mult(BLOCK_SIZE), renderable);
+	}
+
+	/**
+	 * Constructs a new block spanning several block cells, with the specified renderable.
+	 *
+	 * @param topLeftCorner The top-left position of the block.
+	 * @param dimensions    The size of the block (a multiple of BLOCK_SIZE on each axis).
+	 * @param renderable    The visual representation of the block.
+	 */
+	public Block(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+		super(topLeftCorner, dimensions, renderable);
 		physics().preventIntersectionsFromDirection(Vector2.ZERO);
 		physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
 	}
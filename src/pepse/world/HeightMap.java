@@ -0,0 +1,110 @@
+package pepse.world;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of terrain heights at block-aligned x-coordinates.
+ * Heights are computed a chunk of columns at a time into a primitive array, and the least
+ * recently used chunks are evicted once more than a fixed number of them are cached.
+ * Safe to query from several threads; heights of a missing chunk are computed outside the lock.
+ */
+public class HeightMap {
+	/** Number of block columns stored in a single cached chunk. */
+	public static final int COLUMNS_PER_CHUNK = 16;
+
+	/**
+	 * Computes the heights of consecutive block-aligned columns.
+	 */
+	public interface ColumnSource {
+		/**
+		 * Fills heights[i] with the ground height at x = startX + i * blockSize.
+		 *
+		 * @param startX  The block-aligned x-coordinate of the first column.
+		 * @param heights The array to fill, one entry per column.
+		 */
+		void fillColumns(int startX, float[] heights);
+	}
+
+	private final ColumnSource source;
+	private final int blockSize;
+	private final Map<Integer, float[]> chunks;
+	// The most recently used chunk, checked before the map for runs of nearby queries
+	private int lastChunkKey;
+	private float[] lastChunk;
+
+	/**
+	 * Constructs an empty height map.
+	 *
+	 * @param source    The source of column heights on a cache miss.
+	 * @param blockSize Distance between two columns (in pixels).
+	 * @param maxChunks Maximal number of chunks kept in the cache.
+	 */
+	public HeightMap(ColumnSource source, int blockSize, int maxChunks) {
+		this.source = source;
+		this.blockSize = blockSize;
+		this.chunks = new LinkedHashMap<>(maxChunks, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, float[]> eldest) {
+				return size() > maxChunks;
+			}
+		};
+	}
+
+	/**
+	 * Returns the height at any x-coordinate, interpolating linearly between the two
+	 * surrounding columns when x is not block-aligned.
+	 *
+	 * @param x The x-coordinate.
+	 * @return The ground height at x.
+	 */
+	public float heightAt(float x) {
+		float column = x / blockSize;
+		int leftColumn = (int) Math.floor(column);
+		float fraction = column - leftColumn;
+		float leftHeight = columnHeight(leftColumn);
+		if (fraction == 0) {
+			return leftHeight;
+		}
+		float rightHeight = columnHeight(leftColumn + 1);
+		return leftHeight + fraction * (rightHeight - leftHeight);
+	}
+
+	/**
+	 * Returns the height of a single column.
+	 *
+	 * @param column The column index (x divided by the block size).
+	 * @return The ground height of the column.
+	 */
+	public float columnHeight(int column) {
+		int key = Math.floorDiv(column, COLUMNS_PER_CHUNK);
+		float[] heights = cachedChunk(key);
+		if (heights == null) {
+			// Two threads may compute the same chunk concurrently; both results are identical
+			heights = new float[COLUMNS_PER_CHUNK];
+			source.fillColumns(key * COLUMNS_PER_CHUNK * blockSize, heights);
+			storeChunk(key, heights);
+		}
+		return heights[column - key * COLUMNS_PER_CHUNK];
+	}
+
+	// Returns the cached chunk with the given key, or null on a miss
+	private synchronized float[] cachedChunk(int key) {
+		if (lastChunk != null && lastChunkKey == key) {
+			return lastChunk;
+		}
+		float[] heights = chunks.get(key);
+		if (heights != null) {
+			lastChunkKey = key;
+			lastChunk = heights;
+		}
+		return heights;
+	}
+
+	// Adds a computed chunk to the cache
+	private synchronized void storeChunk(int key, float[] heights) {
+		chunks.put(key, heights);
+		lastChunkKey = key;
+		lastChunk = heights;
+	}
+}
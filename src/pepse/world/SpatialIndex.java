@@ -0,0 +1,216 @@
+package pepse.world;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A spatial hash of world items by x-position. The world is cut into fixed-width columns
+ * (one terrain block wide by default), and each column keeps the items whose x falls in it,
+ * so "what is near x" only looks at the few columns around x instead of every object.
+ * An item can also cover a horizontal range (e.g. a merged terrain block); it is then kept
+ * in every column the range overlaps, and found by queries touching any part of it.
+ *
+ * @param <T> The type of the indexed items.
+ */
+public class SpatialIndex<T> {
+	private final float cellWidth;
+	private final Map<Integer, List<Entry<T>>> cells = new HashMap<>();
+	private int size = 0;
+
+	// An indexed item and the x-range it was indexed at (minX == maxX for a single position)
+	private static class Entry<T> {
+		private final T item;
+		private final float minX;
+		private final float maxX;
+
+		private Entry(T item, float minX, float maxX) {
+			this.item = item;
+			this.minX = minX;
+			this.maxX = maxX;
+		}
+
+		// Distance from x to the nearest point of the range, 0 inside it
+		private float distanceTo(float x) {
+			return x < minX ? minX - x : Math.max(0, x - maxX);
+		}
+	}
+
+	/**
+	 * Constructs an empty index with one column per terrain block.
+	 */
+	public SpatialIndex() {
+		this(Terrain.BLOCK_SIZE);
+	}
+
+	/**
+	 * Constructs an empty index.
+	 *
+	 * @param cellWidth Width of a single column (in pixels).
+	 */
+	public SpatialIndex(float cellWidth) {
+		this.cellWidth = cellWidth;
+	}
+
+	/**
+	 * Adds an item at the given x-position.
+	 *
+	 * @param x    The x-position of the item.
+	 * @param item The item.
+	 */
+	public void add(float x, T item) {
+		add(x, x, item);
+	}
+
+	/**
+	 * Adds an item covering the given x-range.
+	 *
+	 * @param minX Left edge of the item.
+	 * @param maxX Right edge of the item.
+	 * @param item The item.
+	 */
+	public void add(float minX, float maxX, T item) {
+		Entry<T> entry = new Entry<>(item, minX, maxX);
+		int maxCell = cellAt(maxX);
+		for (int cell = cellAt(minX); cell <= maxCell; cell++) {
+			cells.computeIfAbsent(cell, key -> new ArrayList<>()).add(entry);
+		}
+		size++;
+	}
+
+	/**
+	 * Removes an item that was added at the given x-position.
+	 *
+	 * @param x    The x-position the item was added at.
+	 * @param item The item.
+	 * @return True if the item was found and removed.
+	 */
+	public boolean remove(float x, T item) {
+		return remove(x, x, item);
+	}
+
+	/**
+	 * Removes an item that was added covering the given x-range.
+	 *
+	 * @param minX The left edge the item was added with.
+	 * @param maxX The right edge the item was added with.
+	 * @param item The item.
+	 * @return True if the item was found and removed.
+	 */
+	public boolean remove(float minX, float maxX, T item) {
+		boolean removed = false;
+		int maxCell = cellAt(maxX);
+		for (int cell = cellAt(minX); cell <= maxCell; cell++) {
+			removed |= removeFromCell(cell, item);
+		}
+		if (removed) {
+			size--;
+		}
+		return removed;
+	}
+
+	/**
+	 * Collects every item whose x-position (or range) overlaps the given range (inclusive).
+	 * Each item is collected once, however many columns it covers.
+	 *
+	 * @param minX   Left edge of the range.
+	 * @param maxX   Right edge of the range.
+	 * @param result List the found items are appended to.
+	 * @return The result list.
+	 */
+	public List<T> queryRange(float minX, float maxX, List<T> result) {
+		int minCell = cellAt(minX);
+		int maxCell = cellAt(maxX);
+		for (int cell = minCell; cell <= maxCell; cell++) {
+			List<Entry<T>> entries = cells.get(cell);
+			if (entries == null) {
+				continue;
+			}
+			for (Entry<T> entry : entries) {
+				// An item covering several columns is reported by the first of them the query visits
+				if (entry.maxX >= minX && entry.minX <= maxX
+						&& cell == Math.max(minCell, cellAt(entry.minX))) {
+					result.add(entry.item);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the item nearest to the given x-position. Items covering x are at distance 0.
+	 *
+	 * @param x           The x-position to search around.
+	 * @param maxDistance Items farther than this are ignored.
+	 * @return The nearest item, or null if there is none within maxDistance.
+	 */
+	public T nearest(float x, float maxDistance) {
+		return nearest(x, maxDistance, item -> true);
+	}
+
+	/**
+	 * Finds the item nearest to the given x-position among the items matching a filter.
+	 *
+	 * @param x           The x-position to search around.
+	 * @param maxDistance Items farther than this are ignored.
+	 * @param filter      Only items it accepts are considered.
+	 * @return The nearest matching item, or null if there is none within maxDistance.
+	 */
+	public T nearest(float x, float maxDistance, Predicate<? super T> filter) {
+		int centerCell = cellAt(x);
+		int maxRing = (int) Math.ceil(maxDistance / cellWidth);
+		Entry<T> best = null;
+		float bestDistance = maxDistance;
+		// Scan columns outward from x, and stop once no closer item can exist
+		for (int ring = 0; ring <= maxRing && (ring - 1) * cellWidth <= bestDistance; ring++) {
+			for (int cell = centerCell - ring; cell <= centerCell + ring; cell += Math.max(1, 2 * ring)) {
+				List<Entry<T>> entries = cells.get(cell);
+				if (entries == null) {
+					continue;
+				}
+				for (Entry<T> entry : entries) {
+					float distance = entry.distanceTo(x);
+					if (distance <= bestDistance && filter.test(entry.item)) {
+						best = entry;
+						bestDistance = distance;
+					}
+				}
+			}
+		}
+		return best == null ? null : best.item;
+	}
+
+	/**
+	 * @return The number of indexed items.
+	 */
+	public int size() {
+		return size;
+	}
+
+	// Removes an item from a single column, returning true if it was there
+	private boolean removeFromCell(int cell, T item) {
+		List<Entry<T>> entries = cells.get(cell);
+		if (entries == null) {
+			return false;
+		}
+		for (int i = 0; i < entries.size(); i++) {
+			if (entries.get(i).item == item) {
+				// Order within a column doesn't matter, so move the last entry into the hole
+				entries.set(i, entries.get(entries.size() - 1));
+				entries.remove(entries.size() - 1);
+				if (entries.isEmpty()) {
+					cells.remove(cell);
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Returns the column containing the given x-position
+	private int cellAt(float x) {
+		return (int) Math.floor(x / cellWidth);
+	}
+}
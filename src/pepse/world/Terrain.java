@@ -1,14 +1,17 @@
 package pepse.world;
 
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
 import pepse.util.NoiseGenerator;
+import pepse.util.RenderableCache;
+import pepse.util.WorldRandom;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Responsible for generating terrain blocks in a procedurally defined landscape.
@@ -20,55 +23,146 @@ public class Terrain {
 	private static final int TERRAIN_DEPTH = 20;
 	private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
 	private static final String GROUND_TAG = "ground";
+	private static final int NOISE_FACTOR = BLOCK_SIZE * 7;
+	// Enough cached columns to cover several screens on each side of the player
+	private static final int HEIGHT_MAP_CACHED_CHUNKS = 64;
+	// Separates the terrain color random streams from other uses of the world seed
+	private static final int TERRAIN_COLOR_SALT = 1;
 
+	private final int seed;
 	private final NoiseGenerator noise;
 	private final Vector2 windowDimensions;
 	private final float groundHeightAtX0;
+	private final boolean mergeColumns;
+	private final HeightMap heightMap;
 
 	/**
-	 * Constructs a Terrain instance with the given screen size and seed.
+	 * Constructs a Terrain instance with the given screen size and seed,
+	 * creating one block per terrain cell.
 	 *
 	 * @param windowDimensions Dimensions of the game window.
 	 * @param seed             Seed for terrain noise generation.
 	 */
 	public Terrain(Vector2 windowDimensions, int seed) {
+		this(windowDimensions, seed, false);
+	}
+
+	/**
+	 * Constructs a Terrain instance with the given screen size and seed.
+	 *
+	 * @param windowDimensions Dimensions of the game window.
+	 * @param seed             Seed for terrain noise generation.
+	 * @param mergeColumns     If true, each run of equal-height columns becomes a single tall
+	 *                         collider that draws all of its cells, instead of TERRAIN_DEPTH
+	 *                         blocks per column.
+	 */
+	public Terrain(Vector2 windowDimensions, int seed, boolean mergeColumns) {
 		this.windowDimensions = windowDimensions;
+		this.seed = seed;
 		this.groundHeightAtX0 = windowDimensions.y() * 2 / 3f;
 		this.noise = new NoiseGenerator((double) seed, (int) groundHeightAtX0);
+		this.mergeColumns = mergeColumns;
+		this.heightMap = new HeightMap(this::computeColumnHeights, BLOCK_SIZE, HEIGHT_MAP_CACHED_CHUNKS);
+	}
+
+	/**
+	 * @return The height the terrain noise varies around, set by the window height.
+	 * Together with the seed, it determines the whole terrain.
+	 */
+	public float getBaseHeight() {
+		return groundHeightAtX0;
 	}
 
 	/**
 	 * Computes terrain height (y value) at a specific x-coordinate.
+	 * Heights are looked up in a cached height map, interpolating between
+	 * block-aligned columns.
 	 *
 	 * @param x The x-coordinate.
 	 * @return The corresponding ground height.
 	 */
 	public float groundHeightAt(float x) {
-		return groundHeightAtX0 - (float) noise.noise(x, BLOCK_SIZE * 7);
+		return heightMap.heightAt(x);
+	}
+
+	// Evaluates the noise for a whole run of columns on a height map cache miss
+	private void computeColumnHeights(int startX, float[] heights) {
+		noise.noise(startX, BLOCK_SIZE, NOISE_FACTOR, heights, 0, heights.length);
+		for (int i = 0; i < heights.length; i++) {
+			heights[i] = groundHeightAtX0 - heights[i];
+		}
 	}
 
 	/**
 	 * Generates a list of terrain blocks in a horizontal range.
+	 * All blocks are tagged as ground, in both terrain modes.
 	 *
 	 * @param minX The minimum x-coordinate (inclusive).
 	 * @param maxX The maximum x-coordinate (inclusive).
 	 * @return A list of Block objects representing terrain in the given range.
 	 */
 	public List<Block> createInRange(int minX, int maxX) {
-		List<Block> blocks = new ArrayList<>();
+		return build(generateInRange(minX, maxX));
+	}
 
+	/**
+	 * Computes the column heights and cell colors of a horizontal range, without creating
+	 * any game object. Safe to call from any thread.
+	 * The result depends only on the seed and the range, so a range can be regenerated identically.
+	 *
+	 * @param minX The minimum x-coordinate (inclusive).
+	 * @param maxX The maximum x-coordinate (inclusive).
+	 * @return The data of the block-aligned columns covering the range.
+	 */
+	public TerrainColumns generateInRange(int minX, int maxX) {
 		int alignedMinX = (int) Math.floor((float) minX / BLOCK_SIZE) * BLOCK_SIZE;
 		int alignedMaxX = (int) Math.ceil((float) maxX / BLOCK_SIZE) * BLOCK_SIZE;
+		int columnCount = (alignedMaxX - alignedMinX) / BLOCK_SIZE + 1;
+
+		float[] tops = new float[columnCount];
+		Color[] cellColors = new Color[columnCount * TERRAIN_DEPTH];
+		for (int column = 0; column < columnCount; column++) {
+			tops[column] = columnTopAt(alignedMinX + column * BLOCK_SIZE);
+		}
+		Random random = WorldRandom.at(seed, alignedMinX, TERRAIN_COLOR_SALT);
+		for (int i = 0; i < cellColors.length; i++) {
+			cellColors[i] = ColorSupplier.paletteColor(BASE_GROUND_COLOR, random);
+		}
+		return new TerrainColumns(alignedMinX, tops, cellColors, TERRAIN_DEPTH);
+	}
+
+	/**
+	 * Creates the ground blocks for previously generated columns, according to the terrain mode.
+	 *
+	 * @param columns The column data, as returned by generateInRange.
+	 * @return The created blocks (not yet added to the game).
+	 */
+	public List<Block> build(TerrainColumns columns) {
+		if (mergeColumns) {
+			return buildMergedColumns(columns);
+		}
+		return buildSingleBlocks(columns);
+	}
+
+	// Returns the top of the terrain column at x, snapped to the block grid
+	private float columnTopAt(int x) {
+		float height = heightMap.columnHeight(Math.floorDiv(x, BLOCK_SIZE));
+		return (float) (Math.floor(height / BLOCK_SIZE) * BLOCK_SIZE);
+	}
+
+	// Creates TERRAIN_DEPTH separate blocks for every column
+	private List<Block> buildSingleBlocks(TerrainColumns columns) {
+		List<Block> blocks = new ArrayList<>();
+		Color[] cellColors = columns.getCellColors();
 
-		for (int x = alignedMinX; x <= alignedMaxX; x += BLOCK_SIZE) {
-			float groundHeight = (float)
-					(Math.floor(groundHeightAt(x) / BLOCK_SIZE) * BLOCK_SIZE);
+		for (int column = 0; column < columns.getColumnCount(); column++) {
+			int x = columns.getStartX() + column * BLOCK_SIZE;
+			float groundHeight = columns.getTop(column);
 
 			for (int i = 0; i < TERRAIN_DEPTH; i++) {
 				float y = groundHeight + i * BLOCK_SIZE;
 				Vector2 blockTopLeftCorner = new Vector2(x, y);
-				Renderable blockRenderable =
-						new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR));
+				Renderable blockRenderable = RenderableCache.rectangle(cellColors[column * TERRAIN_DEPTH + i]);
 				Block block = new Block(blockTopLeftCorner, blockRenderable);
 				block.setTag(GROUND_TAG);
 				blocks.add(block);
@@ -77,4 +171,34 @@ public class Terrain {
 
 		return blocks;
 	}
+
+	// Creates one tall block per run of equal-height columns
+	private List<Block> buildMergedColumns(TerrainColumns columns) {
+		List<Block> blocks = new ArrayList<>();
+		int columnCount = columns.getColumnCount();
+
+		int runStart = 0;
+		for (int column = 1; column <= columnCount; column++) {
+			if (column == columnCount || columns.getTop(column) != columns.getTop(runStart)) {
+				blocks.add(buildColumnRun(columns, runStart, column));
+				runStart = column;
+			}
+		}
+
+		return blocks;
+	}
+
+	// Creates a single ground block covering columns [startColumn, endColumn) down to TERRAIN_DEPTH
+	private Block buildColumnRun(TerrainColumns columns, int startColumn, int endColumn) {
+		int runColumns = endColumn - startColumn;
+		Color[] cellColors = Arrays.copyOfRange(columns.getCellColors(),
+				startColumn * TERRAIN_DEPTH, endColumn * TERRAIN_DEPTH);
+
+		Block block = new Block(
+				new Vector2(columns.getStartX() + startColumn * BLOCK_SIZE, columns.getTop(startColumn)),
+				new Vector2(runColumns * BLOCK_SIZE, TERRAIN_DEPTH * BLOCK_SIZE),
+				new TerrainColumnRenderable(cellColors, runColumns, TERRAIN_DEPTH));
+		block.setTag(GROUND_TAG);
+		return block;
+	}
 }
@@ -0,0 +1,52 @@
+package pepse.world;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+
+/**
+ * Draws a grid of block-sized cells, each with its own color, inside a single renderable.
+ * Lets one merged terrain collider look exactly like the individual blocks it replaces.
+ */
+public class TerrainColumnRenderable implements Renderable {
+	private final Color[] cellColors;
+	private final int columns;
+	private final int rows;
+
+	/**
+	 * Constructs a renderable for a grid of cells.
+	 *
+	 * @param cellColors The color of each cell, in column-major order (all rows of column 0 first).
+	 * @param columns    Number of cell columns.
+	 * @param rows       Number of cell rows.
+	 */
+	public TerrainColumnRenderable(Color[] cellColors, int columns, int rows) {
+		this.cellColors = cellColors;
+		this.columns = columns;
+		this.rows = rows;
+	}
+
+	/**
+	 * Fills every cell of the grid with its color.
+	 */
+	@Override
+	public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+					   double degreesCounterClockwise, boolean isFlippedHorizontally,
+					   boolean isFlippedVertically, double opaqueness) {
+		float cellWidth = dimensions.x() / columns;
+		float cellHeight = dimensions.y() / rows;
+		int left = Math.round(topLeftCorner.x());
+		int top = Math.round(topLeftCorner.y());
+		int width = Math.round(cellWidth);
+		int height = Math.round(cellHeight);
+
+		for (int col = 0; col < columns; col++) {
+			int x = left + Math.round(col * cellWidth);
+			for (int row = 0; row < rows; row++) {
+				g.setColor(cellColors[col * rows + row]);
+				g.fillRect(x, top + Math.round(row * cellHeight), width, height);
+			}
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package pepse.world;
+
+import java.awt.*;
+
+/**
+ * The pure data describing a run of terrain columns: the top of each column and the color
+ * of each of its cells. Creating it touches no game objects, so it can be done off the game thread.
+ */
+public class TerrainColumns {
+	private final int startX;
+	private final float[] tops;
+	private final Color[] cellColors;
+	private final int depth;
+
+	/**
+	 * Constructs the data of a run of columns.
+	 *
+	 * @param startX     The block-aligned x-coordinate of the first column.
+	 * @param tops       The top y-coordinate of each column, snapped to the block grid.
+	 * @param cellColors The color of each cell, in column-major order.
+	 * @param depth      Number of cells in every column.
+	 */
+	public TerrainColumns(int startX, float[] tops, Color[] cellColors, int depth) {
+		this.startX = startX;
+		this.tops = tops;
+		this.cellColors = cellColors;
+		this.depth = depth;
+	}
+
+	/**
+	 * @return The x-coordinate of the first column.
+	 */
+	public int getStartX() {
+		return startX;
+	}
+
+	/**
+	 * @return The number of columns.
+	 */
+	public int getColumnCount() {
+		return tops.length;
+	}
+
+	/**
+	 * @return The number of cells in every column.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @param column The column index, starting at 0.
+	 * @return The top y-coordinate of the column.
+	 */
+	public float getTop(int column) {
+		return tops[column];
+	}
+
+	/**
+	 * @return The color of every cell, in column-major order (all rows of column 0 first).
+	 */
+	public Color[] getCellColors() {
+		return cellColors;
+	}
+}
@@ -3,26 +3,30 @@ package pepse.world.UI;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
+import danogl.components.CoordinateSpace;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
 
 import java.awt.*;
-import java.util.function.Supplier;
+import java.util.function.DoubleSupplier;
 
 /**
  * A UI panel displaying the current energy level of the avatar in percentage.
- * Updates its display every frame.
+ * Polls the energy every frame but only changes the text when the displayed percentage changes,
+ * using texts precomputed for 0-100%.
  */
 public class EnergyPanel extends GameObject {
 	private static final Vector2 PANEL_TOP_LEFT = new Vector2(15, 15);
 	private static final Vector2 PANEL_SIZE = new Vector2(100, 30);
 	private static final Color ENERGY_COLOR = Color.BLACK;
 	private static final String ENERGY_FORMAT = "Energy: %d%%";
-	private static final String INITIAL_TEXT = "Energy: 100%";
+	private static final int MAX_PERCENT = 100;
+	private static final String[] ENERGY_TEXTS = createEnergyTexts();
 
 	private final TextRenderable energyTextRenderable;
 	private final GameObject textObject;
-	private final Supplier<Float> energySupplier;
+	private final DoubleSupplier energySupplier;
+	private int displayedEnergy = MAX_PERCENT;
 
 	/**
 	 * Constructs the energy panel UI.
@@ -30,28 +34,51 @@ public class EnergyPanel extends GameObject {
 	 * @param gameObjects    The game's object collection to which this panel will be added.
 	 * @param energySupplier A function that supplies the current energy level.
 	 */
-	public EnergyPanel(GameObjectCollection gameObjects, Supplier<Float> energySupplier) {
+	public EnergyPanel(GameObjectCollection gameObjects, DoubleSupplier energySupplier) {
 		super(PANEL_TOP_LEFT, PANEL_SIZE, null);
+		setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 		this.energySupplier = energySupplier;
 
-		energyTextRenderable = new TextRenderable(INITIAL_TEXT);
+		energyTextRenderable = new TextRenderable(ENERGY_TEXTS[displayedEnergy]);
 		energyTextRenderable.setColor(ENERGY_COLOR);
 
 		textObject = new GameObject(PANEL_TOP_LEFT, PANEL_SIZE, energyTextRenderable);
+		textObject.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 
 		gameObjects.addGameObject(this, Layer.UI);
 		gameObjects.addGameObject(textObject, Layer.UI);
 	}
 
 	/**
-	 * Updates the displayed energy value each frame.
+	 * Updates the displayed energy value if it changed since the last frame.
 	 *
 	 * @param deltaTime Time passed since last frame (unused).
 	 */
 	@Override
 	public void update(float deltaTime) {
 		super.update(deltaTime);
-		float currentEnergy = energySupplier.get();
-		energyTextRenderable.setString(String.format(ENERGY_FORMAT, (int) currentEnergy));
+		int currentEnergy = (int) energySupplier.getAsDouble();
+		if (currentEnergy == displayedEnergy) {
+			return;
+		}
+		displayedEnergy = currentEnergy;
+		energyTextRenderable.setString(textFor(currentEnergy));
+	}
+
+	// Returns the text for an energy percentage, precomputed unless it is out of range
+	private static String textFor(int energy) {
+		if (energy >= 0 && energy <= MAX_PERCENT) {
+			return ENERGY_TEXTS[energy];
+		}
+		return String.format(ENERGY_FORMAT, energy);
+	}
+
+	// The texts for every percentage from 0 to 100
+	private static String[] createEnergyTexts() {
+		String[] texts = new String[MAX_PERCENT + 1];
+		for (int percent = 0; percent <= MAX_PERCENT; percent++) {
+			texts[percent] = String.format(ENERGY_FORMAT, percent);
+		}
+		return texts;
 	}
 }
@@ -0,0 +1,39 @@
+package pepse.world.UI;
+
+/**
+ * Smooths the frame time over recent frames, for display in the HUD.
+ */
+public class FrameRateMeter {
+	// Weight of the newest frame in the running average
+	private static final float SMOOTHING = 0.1f;
+	private static final float MILLIS_PER_SECOND = 1000f;
+
+	private float averageFrameTime = 0;
+
+	/**
+	 * Records the duration of a frame. Must be called once per frame.
+	 *
+	 * @param deltaTime Time since the previous frame (in seconds).
+	 */
+	public void tick(float deltaTime) {
+		if (averageFrameTime == 0) {
+			averageFrameTime = deltaTime;
+		} else {
+			averageFrameTime += (deltaTime - averageFrameTime) * SMOOTHING;
+		}
+	}
+
+	/**
+	 * @return The average number of frames per second, or 0 before the first frame.
+	 */
+	public float getFps() {
+		return averageFrameTime == 0 ? 0 : 1f / averageFrameTime;
+	}
+
+	/**
+	 * @return The average frame time (in milliseconds).
+	 */
+	public float getFrameTimeMillis() {
+		return averageFrameTime * MILLIS_PER_SECOND;
+	}
+}
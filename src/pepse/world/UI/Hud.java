@@ -0,0 +1,73 @@
+package pepse.world.UI;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A column of HUD readouts on the UI layer. Every widget samples its metric at the
+ * HUD's refresh rate and only rebuilds its text when the value changes, so adding
+ * readouts costs next to nothing per frame.
+ */
+public class Hud {
+	private static final Vector2 WIDGET_SIZE = new Vector2(200, 20);
+
+	private final GameObjectCollection gameObjects;
+	private final Vector2 topLeftCorner;
+	private final float refreshRate;
+	private final List<HudWidget> widgets = new ArrayList<>();
+
+	/**
+	 * Constructs an empty HUD.
+	 *
+	 * @param gameObjects   The game object collection widgets are added to.
+	 * @param topLeftCorner Screen position of the first widget; the others are stacked below it.
+	 * @param refreshRate   Number of times per second every widget samples its metric.
+	 */
+	public Hud(GameObjectCollection gameObjects, Vector2 topLeftCorner, float refreshRate) {
+		this.gameObjects = gameObjects;
+		this.topLeftCorner = topLeftCorner;
+		this.refreshRate = refreshRate;
+	}
+
+	/**
+	 * Adds a readout of a whole-number metric below the existing ones.
+	 *
+	 * @param label  Text shown before the value, e.g. "Objects: ".
+	 * @param source The metric to display.
+	 * @return The created widget.
+	 */
+	public HudWidget addWidget(String label, DoubleSupplier source) {
+		return addWidget(label, source, 0);
+	}
+
+	/**
+	 * Adds a readout below the existing ones.
+	 *
+	 * @param label    Text shown before the value, e.g. "FPS: ".
+	 * @param source   The metric to display.
+	 * @param decimals Number of digits shown after the decimal point (0 to 3).
+	 * @return The created widget.
+	 */
+	public HudWidget addWidget(String label, DoubleSupplier source, int decimals) {
+		Vector2 position = topLeftCorner.add(new Vector2(0, widgets.size() * WIDGET_SIZE.y()));
+		HudWidget widget = new HudWidget(position, WIDGET_SIZE, label, source, decimals, refreshRate);
+		widgets.add(widget);
+		gameObjects.addGameObject(widget, Layer.UI);
+		return widget;
+	}
+
+	/**
+	 * Removes every widget from the game.
+	 */
+	public void remove() {
+		for (HudWidget widget : widgets) {
+			gameObjects.removeGameObject(widget, Layer.UI);
+		}
+		widgets.clear();
+	}
+}
@@ -0,0 +1,99 @@
+package pepse.world.UI;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A single HUD readout: a label followed by the value of a metric, e.g. "FPS: 59.8".
+ * The metric is sampled at a fixed rate rather than every frame, and the text is only
+ * rebuilt when the displayed (rounded) value changes.
+ */
+public class HudWidget extends GameObject {
+	private static final Color TEXT_COLOR = Color.BLACK;
+	private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000};
+
+	private final String label;
+	private final DoubleSupplier source;
+	private final int decimals;
+	private final float refreshInterval;
+	private final TextRenderable textRenderable;
+	private final StringBuilder text = new StringBuilder();
+	private float timeSinceRefresh;
+	private long displayedValue = Long.MIN_VALUE;
+
+	/**
+	 * Constructs a widget. It is refreshed on its first update.
+	 *
+	 * @param topLeftCorner Position of the widget on the screen.
+	 * @param dimensions    Size of the widget.
+	 * @param label         Text shown before the value, e.g. "FPS: ".
+	 * @param source        The metric to display.
+	 * @param decimals      Number of digits shown after the decimal point (0 to 3).
+	 * @param refreshRate   Number of times per second the metric is sampled.
+	 */
+	public HudWidget(Vector2 topLeftCorner, Vector2 dimensions, String label,
+					 DoubleSupplier source, int decimals, float refreshRate) {
+		super(topLeftCorner, dimensions, null);
+		if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+			throw new IllegalArgumentException("Unsupported number of decimals: " + decimals);
+		}
+		this.label = label;
+		this.source = source;
+		this.decimals = decimals;
+		this.refreshInterval = 1f / refreshRate;
+		this.timeSinceRefresh = refreshInterval;
+		this.textRenderable = new TextRenderable(label);
+		textRenderable.setColor(TEXT_COLOR);
+		renderer().setRenderable(textRenderable);
+		setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+	}
+
+	/**
+	 * Samples the metric when the refresh interval has passed, and updates the text if it changed.
+	 *
+	 * @param deltaTime Time since last update.
+	 */
+	@Override
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		timeSinceRefresh += deltaTime;
+		if (timeSinceRefresh < refreshInterval) {
+			return;
+		}
+		timeSinceRefresh = 0;
+
+		long value = Math.round(source.getAsDouble() * POWERS_OF_TEN[decimals]);
+		if (value == displayedValue) {
+			return;
+		}
+		displayedValue = value;
+		textRenderable.setString(format(value));
+	}
+
+	// Writes the label and a fixed-point value (scaled by 10^decimals) without String.format
+	private String format(long value) {
+		text.setLength(0);
+		text.append(label);
+		if (value < 0) {
+			text.append('-');
+			value = -value;
+		}
+		long scale = POWERS_OF_TEN[decimals];
+		text.append(value / scale);
+		if (decimals > 0) {
+			text.append('.');
+			long fraction = value % scale;
+			// Pad the fraction with leading zeros, e.g. 5 -> "05" with two decimals
+			for (long digit = scale / 10; digit > 1 && fraction < digit; digit /= 10) {
+				text.append('0');
+			}
+			text.append(fraction);
+		}
+		return text.toString();
+	}
+}
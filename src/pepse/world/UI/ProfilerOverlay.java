@@ -0,0 +1,70 @@
+package pepse.world.UI;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+import pepse.util.Profiler;
+
+import java.util.Locale;
+
+/**
+ * An in-game readout of the profiler: frame time percentiles, allocation rate, time per
+ * subsystem and object count per layer. Toggling it on also turns the profiler on.
+ */
+public class ProfilerOverlay {
+	private static final float REFRESH_RATE = 2f;
+	private static final String[] LAYER_LABELS = {
+			"Background: ", "Static objects: ", "Default: ", "Foreground: ", "UI: "
+	};
+
+	private final GameObjectCollection gameObjects;
+	private final Vector2 topLeftCorner;
+	private Hud hud;
+
+	/**
+	 * Constructs a hidden overlay.
+	 *
+	 * @param gameObjects   The game object collection the readouts are added to.
+	 * @param topLeftCorner Screen position of the overlay.
+	 */
+	public ProfilerOverlay(GameObjectCollection gameObjects, Vector2 topLeftCorner) {
+		this.gameObjects = gameObjects;
+		this.topLeftCorner = topLeftCorner;
+	}
+
+	/**
+	 * @return True if the overlay is shown.
+	 */
+	public boolean isVisible() {
+		return hud != null;
+	}
+
+	/**
+	 * Shows the overlay if hidden and hides it if shown. The profiler runs while the overlay
+	 * is shown (or while it dumps to a file).
+	 */
+	public void toggle() {
+		if (hud == null) {
+			show();
+		} else {
+			hud.remove();
+			hud = null;
+		}
+		Profiler.setEnabled(isVisible() || Profiler.isDumpingCsv());
+	}
+
+	// Creates the readouts
+	private void show() {
+		hud = new Hud(gameObjects, topLeftCorner, REFRESH_RATE);
+		hud.addWidget("Frame p50 (ms): ", Profiler::getFrameTimeP50, 1);
+		hud.addWidget("Frame p99 (ms): ", Profiler::getFrameTimeP99, 1);
+		hud.addWidget("Alloc (MB/s): ", Profiler::getAllocationRate, 1);
+		for (Profiler.Section section : Profiler.Section.values()) {
+			String label = section.name().toLowerCase(Locale.ROOT) + " (ms): ";
+			hud.addWidget(label, () -> Profiler.getSectionMillis(section), 3);
+		}
+		for (int i = 0; i < LAYER_LABELS.length; i++) {
+			int layerIndex = i;
+			hud.addWidget(LAYER_LABELS[i], () -> Profiler.getLayerCount(layerIndex));
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package pepse.world;
+
+import pepse.world.trees.Fruit;
+import pepse.world.trees.Tree;
+
+/**
+ * Spatial indexes of the terrain blocks, trees and fruits currently loaded in the world,
+ * kept up to date as chunks are built and unloaded. Used to answer "what is near x"
+ * without scanning the game object collection.
+ */
+public class WorldIndex {
+	private final SpatialIndex<Block> blocks = new SpatialIndex<>();
+	private final SpatialIndex<Tree> trees = new SpatialIndex<>();
+	private final SpatialIndex<Fruit> fruits = new SpatialIndex<>();
+
+	/**
+	 * @return Loaded terrain blocks, by the x-range they cover (a merged block covers several columns).
+	 */
+	public SpatialIndex<Block> getBlocks() {
+		return blocks;
+	}
+
+	/**
+	 * @return Loaded trees, by the x of their trunk.
+	 */
+	public SpatialIndex<Tree> getTrees() {
+		return trees;
+	}
+
+	/**
+	 * @return Loaded fruits (including consumed ones waiting to respawn), by the x of their center.
+	 */
+	public SpatialIndex<Fruit> getFruits() {
+		return fruits;
+	}
+
+	/**
+	 * Adds a terrain block to the index.
+	 *
+	 * @param block The block.
+	 */
+	public void addBlock(Block block) {
+		float left = block.getTopLeftCorner().x();
+		blocks.add(left, left + block.getDimensions().x(), block);
+	}
+
+	/**
+	 * Removes a terrain block from the index.
+	 *
+	 * @param block A block previously added.
+	 */
+	public void removeBlock(Block block) {
+		float left = block.getTopLeftCorner().x();
+		blocks.remove(left, left + block.getDimensions().x(), block);
+	}
+
+	/**
+	 * Adds a tree and its fruits to the index.
+	 *
+	 * @param tree The tree.
+	 */
+	public void addTree(Tree tree) {
+		trees.add(tree.getX(), tree);
+		for (Fruit fruit : tree.getFruits()) {
+			fruits.add(fruit.getSpawnX(), fruit);
+		}
+	}
+
+	/**
+	 * Removes a tree and its fruits from the index.
+	 *
+	 * @param tree A tree previously added.
+	 */
+	public void removeTree(Tree tree) {
+		trees.remove(tree.getX(), tree);
+		for (Fruit fruit : tree.getFruits()) {
+			fruits.remove(fruit.getSpawnX(), fruit);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package pepse.world.chunks;
+
+import danogl.collisions.GameObjectCollection;
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.WorldIndex;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Fruit;
+import pepse.world.trees.Tree;
+import pepse.world.trees.TreeLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed-width vertical slice of the world, holding the terrain blocks and trees created in it.
+ * A chunk is built from its generated data a step at a time (first the terrain, then one
+ * tree per step), so building can be spread over several frames.
+ * A chunk can be made dormant: its objects leave the game but are kept, so waking it is cheap.
+ * Fruits eaten in a chunk are carried over to the snapshot of its data, so it can be saved.
+ */
+public class Chunk {
+	private final ChunkData data;
+	private final WorldIndex index;
+	private final List<Block> blocks = new ArrayList<>();
+	private final List<Tree> trees = new ArrayList<>();
+	private boolean terrainBuilt = false;
+	private boolean active = true;
+	private int builtFruits = 0;
+
+	/**
+	 * Constructs a chunk that has not been added to the game yet.
+	 *
+	 * @param data  The generated data of the chunk.
+	 * @param index Index the chunk's blocks, trees and fruits are added to while it is loaded.
+	 */
+	public Chunk(ChunkData data, WorldIndex index) {
+		this.data = data;
+		this.index = index;
+	}
+
+	/**
+	 * @return The chunk index.
+	 */
+	public int getIndex() {
+		return data.getIndex();
+	}
+
+	/**
+	 * @return True if every object of the chunk has been added to the game.
+	 */
+	public boolean isBuilt() {
+		return terrainBuilt && trees.size() == data.getTrees().size();
+	}
+
+	/**
+	 * Wakes the chunk (adds its built objects back to the game) or makes it dormant (removes them,
+	 * so they are neither updated nor collided with, but keeps them for later).
+	 *
+	 * @param active       True to wake the chunk, false to make it dormant.
+	 * @param gameObjects  The game object collection the chunk is built into.
+	 * @param terrainLayer The layer on which terrain blocks are placed.
+	 */
+	public void setActive(boolean active, GameObjectCollection gameObjects, int terrainLayer) {
+		if (this.active == active) {
+			return;
+		}
+		this.active = active;
+		for (Block block : blocks) {
+			if (active) {
+				gameObjects.addGameObject(block, terrainLayer);
+			} else {
+				gameObjects.removeGameObject(block, terrainLayer);
+			}
+		}
+		for (Tree tree : trees) {
+			tree.setActive(active);
+		}
+	}
+
+	/**
+	 * Adds the next part of the chunk to the game: its terrain on the first call,
+	 * then one tree per call. Parts built while the chunk is dormant are created but kept out of the game.
+	 *
+	 * @param terrain      Terrain used to create the ground blocks.
+	 * @param flora        Flora used to create the trees.
+	 * @param gameObjects  The game object collection to add to.
+	 * @param terrainLayer The layer on which terrain blocks are placed.
+	 * @return The number of game objects added.
+	 */
+	public int buildStep(Terrain terrain, Flora flora, GameObjectCollection gameObjects, int terrainLayer) {
+		if (!terrainBuilt) {
+			terrainBuilt = true;
+			blocks.addAll(terrain.build(data.getTerrain()));
+			for (Block block : blocks) {
+				index.addBlock(block);
+			}
+			if (active) {
+				for (Block block : blocks) {
+					gameObjects.addGameObject(block, terrainLayer);
+				}
+			}
+			return blocks.size();
+		}
+		TreeLayout layout = data.getTrees().get(trees.size());
+		Tree tree = flora.build(layout, active);
+		float[] respawnTimes = data.getFruitRespawnTimes();
+		for (Fruit fruit : tree.getFruits()) {
+			if (respawnTimes != null) {
+				fruit.restoreRespawnTimer(respawnTimes[builtFruits]);
+			}
+			builtFruits++;
+		}
+		trees.add(tree);
+		index.addTree(tree);
+		return layout.getObjectCount();
+	}
+
+	/**
+	 * Takes the chunk's data with the current state of its fruits, for saving.
+	 * Must be called on the game thread.
+	 *
+	 * @return The chunk's data, or null if no fruit changed since the data was generated or loaded.
+	 */
+	public ChunkData snapshot() {
+		float[] saved = data.getFruitRespawnTimes();
+		float[] respawnTimes = saved != null ? saved.clone() : new float[data.getFruitCount()];
+		int fruitIndex = 0;
+		for (Tree tree : trees) {
+			for (Fruit fruit : tree.getFruits()) {
+				respawnTimes[fruitIndex++] = fruit.getRespawnRemaining();
+			}
+		}
+		boolean changed = saved != null ? !Arrays.equals(saved, respawnTimes) : !allZero(respawnTimes);
+		if (!changed) {
+			return null;
+		}
+		return new ChunkData(data.getIndex(), data.getTerrain(), data.getTrees(), respawnTimes);
+	}
+
+	/**
+	 * Removes every object of this chunk that was added to the game, and from the world index.
+	 *
+	 * @param gameObjects  The game object collection the chunk was added to.
+	 * @param terrainLayer The layer the terrain blocks were added on.
+	 */
+	public void unload(GameObjectCollection gameObjects, int terrainLayer) {
+		if (active) {
+			for (Block block : blocks) {
+				gameObjects.removeGameObject(block, terrainLayer);
+			}
+		}
+		for (Block block : blocks) {
+			index.removeBlock(block);
+		}
+		for (Tree tree : trees) {
+			tree.remove();
+			index.removeTree(tree);
+		}
+	}
+
+	// Returns true if every value is 0
+	private static boolean allZero(float[] values) {
+		for (float value : values) {
+			if (value != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
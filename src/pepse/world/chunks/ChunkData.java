@@ -0,0 +1,85 @@
+package pepse.world.chunks;
+
+import pepse.world.TerrainColumns;
+import pepse.world.trees.TreeLayout;
+
+import java.util.List;
+
+/**
+ * Everything needed to build a chunk, as pure data: terrain columns, tree layouts and the
+ * state of the trees' fruits. Produced by the generator threads (or loaded from a ChunkStore)
+ * and consumed on the game thread.
+ */
+public class ChunkData {
+	private final int index;
+	private final TerrainColumns terrain;
+	private final List<TreeLayout> trees;
+	private final float[] fruitRespawnTimes;
+
+	/**
+	 * Constructs the data of a freshly generated chunk, whose fruits are all present.
+	 *
+	 * @param index   The chunk index.
+	 * @param terrain The terrain columns of the chunk.
+	 * @param trees   The layouts of the trees planted in the chunk.
+	 */
+	public ChunkData(int index, TerrainColumns terrain, List<TreeLayout> trees) {
+		this(index, terrain, trees, null);
+	}
+
+	/**
+	 * Constructs the data of a chunk.
+	 *
+	 * @param index             The chunk index.
+	 * @param terrain           The terrain columns of the chunk.
+	 * @param trees             The layouts of the trees planted in the chunk.
+	 * @param fruitRespawnTimes Time left until each fruit respawns (in seconds, 0 if it is present),
+	 *                          in the order of the trees and their fruits, or null if all are present.
+	 */
+	public ChunkData(int index, TerrainColumns terrain, List<TreeLayout> trees, float[] fruitRespawnTimes) {
+		this.index = index;
+		this.terrain = terrain;
+		this.trees = trees;
+		this.fruitRespawnTimes = fruitRespawnTimes;
+	}
+
+	/**
+	 * @return The chunk index.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return The terrain columns of the chunk.
+	 */
+	public TerrainColumns getTerrain() {
+		return terrain;
+	}
+
+	/**
+	 * @return The layouts of the trees planted in the chunk.
+	 */
+	public List<TreeLayout> getTrees() {
+		return trees;
+	}
+
+	/**
+	 * @return Time left until each fruit respawns (in seconds, 0 if it is present), in the order of
+	 * the trees and their fruits, or null if all fruits are present.
+	 */
+	public float[] getFruitRespawnTimes() {
+		return fruitRespawnTimes;
+	}
+
+	/**
+	 * @return The number of fruits on all trees of the chunk.
+	 */
+	public int getFruitCount() {
+		int count = 0;
+		for (TreeLayout tree : trees) {
+			count += tree.getFruitPositions().size();
+		}
+		return count;
+	}
+}
@@ -0,0 +1,417 @@
+package pepse.world.chunks;
+
+import danogl.collisions.GameObjectCollection;
+import pepse.util.Profiler;
+import pepse.world.Terrain;
+import pepse.world.WorldIndex;
+import pepse.world.trees.Flora;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Streams world chunks (terrain and trees) around a moving center point.
+ * A fixed window of chunks is kept loaded: chunks entering the window are generated
+ * and chunks falling out of it are removed, so the number of live objects stays bounded
+ * no matter how far the player travels.
+ * <p>
+ * Chunk data (heights, colors, tree layouts) is generated on background threads, ahead of
+ * the direction of movement. Only creating the game objects and adding them to the game
+ * happens on the game thread, limited to a fixed number of objects per frame.
+ * The initial window is the exception: its data can be generated on any executor while the
+ * game initializes other things (startPreload), then built all at once (finishPreload).
+ * <p>
+ * Given a VisibilityManager, loaded chunks outside the view are kept dormant.
+ * Given a ChunkStore, chunks are loaded from disk when they were saved before, new chunks are saved
+ * as they are generated, and chunks whose fruits were eaten are saved again when they are unloaded
+ * and when the game exits (close).
+ */
+public class ChunkManager {
+	/** Width of a single chunk (in pixels). Always a multiple of the block size. */
+	public static final int CHUNK_WIDTH = Terrain.BLOCK_SIZE * 16;
+
+	// Extra chunks requested beyond the visible window, in the direction of movement
+	private static final int PREFETCH_CHUNKS = 2;
+	// Maximal number of game objects added to the game in a single frame
+	private static final int BUILD_BUDGET_PER_FRAME = 150;
+	private static final String GENERATOR_THREAD_NAME = "chunk-generator";
+	// Longest wait for the generator threads when the game exits
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+	private final Terrain terrain;
+	private final Flora flora;
+	private final GameObjectCollection gameObjects;
+	private final int terrainLayer;
+	private final int loadRadius;
+	private final ExecutorService generators;
+	private final Map<Integer, CompletableFuture<ChunkData>> requests = new HashMap<>();
+	private final Map<Integer, Chunk> chunks = new HashMap<>();
+	private final Queue<Chunk> buildQueue = new ArrayDeque<>();
+	private final WorldIndex index = new WorldIndex();
+	// Snapshots of unloaded chunks still being saved, served to requests until the save is done
+	private final Map<Integer, ChunkData> pendingSaves = new ConcurrentHashMap<>();
+	private VisibilityManager visibility;
+	private ChunkStore store;
+	private int centerChunk = Integer.MIN_VALUE;
+	private int direction = 1;
+	private float lastCenterX = Float.NaN;
+
+	/**
+	 * Constructs a chunk manager.
+	 *
+	 * @param terrain      Terrain used to create the ground blocks.
+	 * @param flora        Flora used to plant the trees.
+	 * @param gameObjects  The game object collection chunks are added to.
+	 * @param terrainLayer The layer on which terrain blocks are placed.
+	 * @param viewWidth    Width of the visible area, used to size the loaded window.
+	 */
+	public ChunkManager(Terrain terrain, Flora flora, GameObjectCollection gameObjects,
+						int terrainLayer, float viewWidth) {
+		this.terrain = terrain;
+		this.flora = flora;
+		this.gameObjects = gameObjects;
+		this.terrainLayer = terrainLayer;
+		// Half a view on each side of the center, plus one chunk of look-ahead.
+		this.loadRadius = (int) Math.ceil(viewWidth / 2f / CHUNK_WIDTH) + 1;
+
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		this.generators = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, GENERATOR_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Keeps loaded chunks outside the visible area dormant. Without it every loaded chunk is active.
+	 *
+	 * @param visibility Decides which chunks are visible.
+	 */
+	public void setVisibility(VisibilityManager visibility) {
+		this.visibility = visibility;
+	}
+
+	/**
+	 * Loads and saves chunks through a persistent store instead of always generating them.
+	 * Must be called before preload.
+	 *
+	 * @param store The store of this world (same seed and terrain).
+	 */
+	public void setStore(ChunkStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Stops generating chunks, waits for the saves still running, then saves the loaded chunks
+	 * whose fruit state changed and closes the store. Used when the game exits; the manager
+	 * cannot be updated afterwards.
+	 * Must be called on the game thread, which owns the chunks.
+	 */
+	public void close() {
+		for (Future<ChunkData> request : requests.values()) {
+			request.cancel(false);
+		}
+		requests.clear();
+		generators.shutdown();
+		awaitGenerators();
+		if (store == null) {
+			return;
+		}
+		for (Chunk chunk : chunks.values()) {
+			ChunkData snapshot = chunk.snapshot();
+			if (snapshot != null) {
+				save(snapshot);
+			}
+		}
+		try {
+			store.close();
+		} catch (IOException e) {
+			System.err.println("Failed to close the world cache: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the index of the chunk containing the given x-coordinate.
+	 *
+	 * @param x A world x-coordinate.
+	 * @return The chunk index.
+	 */
+	public static int chunkIndexAt(float x) {
+		return (int) Math.floor(x / CHUNK_WIDTH);
+	}
+
+	/**
+	 * Synchronously generates and builds the whole window around the given center.
+	 * Used before the first frame, when the player must not see an empty world.
+	 *
+	 * @param centerX The world x-coordinate the window is centered on.
+	 */
+	public void preload(float centerX) {
+		startPreload(centerX, generators);
+		finishPreload();
+	}
+
+	/**
+	 * Starts generating (or loading) the data of the whole window around the given center
+	 * on the given executor, one task per chunk, so the caller can do other work meanwhile.
+	 * Must be followed by finishPreload before the first update.
+	 *
+	 * @param centerX  The world x-coordinate the window is centered on.
+	 * @param executor Runs the chunk tasks.
+	 * @return Completes when the data of every chunk is ready.
+	 */
+	public CompletableFuture<Void> startPreload(float centerX, Executor executor) {
+		lastCenterX = centerX;
+		centerChunk = chunkIndexAt(centerX);
+		forEachWindowChunk(index -> preloadRequest(index, executor));
+		return CompletableFuture.allOf(requests.values().toArray(new CompletableFuture<?>[0]));
+	}
+
+	/**
+	 * Waits for the data started by startPreload and adds every chunk to the game.
+	 * Must be called on the game thread.
+	 */
+	public void finishPreload() {
+		for (Future<ChunkData> request : requests.values()) {
+			Chunk chunk = new Chunk(await(request), index);
+			chunks.put(chunk.getIndex(), chunk);
+			buildQueue.add(chunk);
+		}
+		requests.clear();
+		buildWithinBudget(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Requests chunks entering the window around the given center, unloads the ones leaving it,
+	 * wakes or puts to sleep chunks by visibility, and adds generated chunks to the game within
+	 * the per-frame budget.
+	 * Must be called once per frame on the game thread.
+	 *
+	 * @param centerX The world x-coordinate the window is centered on (usually the avatar).
+	 */
+	public void update(float centerX) {
+		long start = Profiler.start();
+		int newDirection = direction;
+		if (!Float.isNaN(lastCenterX) && centerX != lastCenterX) {
+			newDirection = centerX > lastCenterX ? 1 : -1;
+		}
+		lastCenterX = centerX;
+
+		int newCenterChunk = chunkIndexAt(centerX);
+		if (newCenterChunk != centerChunk || newDirection != direction) {
+			centerChunk = newCenterChunk;
+			direction = newDirection;
+			unloadFarChunks();
+			requestMissingChunks();
+		}
+
+		collectGeneratedChunks();
+		updateVisibility();
+		buildWithinBudget(BUILD_BUDGET_PER_FRAME);
+		Profiler.stop(Profiler.Section.CHUNKS, start);
+	}
+
+	/**
+	 * @return The number of chunks currently in the game (fully or partially built).
+	 */
+	public int getLoadedChunkCount() {
+		return chunks.size();
+	}
+
+	/**
+	 * @return Spatial indexes of the blocks, trees and fruits of the loaded chunks.
+	 */
+	public WorldIndex getWorldIndex() {
+		return index;
+	}
+
+	// Wakes the visible chunks and makes the others dormant
+	private void updateVisibility() {
+		if (visibility == null) {
+			return;
+		}
+		for (Chunk chunk : chunks.values()) {
+			visibility.apply(chunk, gameObjects, terrainLayer);
+		}
+	}
+
+	// Returns true if the chunk is far enough from the center to be dropped
+	private boolean isFar(int index) {
+		return Math.abs(index - centerChunk) > loadRadius + PREFETCH_CHUNKS;
+	}
+
+	// Removes chunks and cancels requests that fell out of the window
+	private void unloadFarChunks() {
+		Iterator<Chunk> chunkIterator = chunks.values().iterator();
+		while (chunkIterator.hasNext()) {
+			Chunk chunk = chunkIterator.next();
+			if (isFar(chunk.getIndex())) {
+				saveInBackground(chunk);
+				chunk.unload(gameObjects, terrainLayer);
+				buildQueue.remove(chunk);
+				chunkIterator.remove();
+			}
+		}
+
+		Iterator<Map.Entry<Integer, CompletableFuture<ChunkData>>> requestIterator =
+				requests.entrySet().iterator();
+		while (requestIterator.hasNext()) {
+			Map.Entry<Integer, CompletableFuture<ChunkData>> request = requestIterator.next();
+			if (isFar(request.getKey())) {
+				request.getValue().cancel(false);
+				requestIterator.remove();
+			}
+		}
+	}
+
+	// Requests the window around the center
+	private void requestMissingChunks() {
+		forEachWindowChunk(this::request);
+	}
+
+	// Visits the chunks of the window around the center, nearest first, prefetching ahead of movement
+	private void forEachWindowChunk(IntConsumer action) {
+		for (int distance = 0; distance <= loadRadius + PREFETCH_CHUNKS; distance++) {
+			action.accept(centerChunk + distance * direction);
+			if (distance <= loadRadius) {
+				action.accept(centerChunk - distance * direction);
+			}
+		}
+	}
+
+	// Starts generating a chunk of the initial window on the given executor, unless already requested
+	private void preloadRequest(int index, Executor executor) {
+		if (!chunks.containsKey(index) && !requests.containsKey(index)) {
+			requests.put(index, CompletableFuture.supplyAsync(() -> generate(index), executor));
+		}
+	}
+
+	// Starts generating a chunk in the background, unless it is already loaded or requested
+	private void request(int index) {
+		if (chunks.containsKey(index) || requests.containsKey(index)) {
+			return;
+		}
+		ChunkData pending = pendingSaves.get(index);
+		if (pending != null) {
+			requests.put(index, CompletableFuture.completedFuture(pending));
+			return;
+		}
+		requests.put(index, CompletableFuture.supplyAsync(() -> generate(index), generators));
+	}
+
+	// Loads a saved chunk, or generates the data of a new one (and saves it). Runs on a generator thread.
+	private ChunkData generate(int index) {
+		if (store != null) {
+			try {
+				ChunkData saved = store.load(index);
+				if (saved != null) {
+					return saved;
+				}
+			} catch (IOException e) {
+				System.err.println("Regenerating chunk " + index + ": " + e.getMessage());
+			}
+		}
+
+		int minX = index * CHUNK_WIDTH;
+		int maxX = minX + CHUNK_WIDTH;
+
+		// Terrain columns include their upper bound, so stop one block short of the next chunk
+		ChunkData data = new ChunkData(index,
+				terrain.generateInRange(minX, maxX - Terrain.BLOCK_SIZE),
+				flora.layoutInRange(minX, maxX));
+		if (store != null) {
+			save(data);
+		}
+		return data;
+	}
+
+	// Saves the chunk's fruit state on a generator thread, if it changed.
+	// Each task writes the latest snapshot of its chunk, and removes it while holding its entry,
+	// so a slow older save can never overwrite a newer one.
+	private void saveInBackground(Chunk chunk) {
+		if (store == null) {
+			return;
+		}
+		ChunkData snapshot = chunk.snapshot();
+		if (snapshot == null) {
+			return;
+		}
+		int chunkIndex = snapshot.getIndex();
+		pendingSaves.put(chunkIndex, snapshot);
+		generators.execute(() -> pendingSaves.computeIfPresent(chunkIndex, (ignored, latest) -> {
+			save(latest);
+			return null;
+		}));
+	}
+
+	// Saves a chunk, reporting failures without interrupting the game
+	private void save(ChunkData data) {
+		try {
+			store.save(data);
+		} catch (IOException e) {
+			System.err.println("Failed to save chunk " + data.getIndex() + ": " + e.getMessage());
+		}
+	}
+
+	// Moves finished requests into the build queue
+	private void collectGeneratedChunks() {
+		Iterator<CompletableFuture<ChunkData>> iterator = requests.values().iterator();
+		while (iterator.hasNext()) {
+			CompletableFuture<ChunkData> request = iterator.next();
+			if (request.isDone()) {
+				iterator.remove();
+				Chunk chunk = new Chunk(await(request), index);
+				chunks.put(chunk.getIndex(), chunk);
+				buildQueue.add(chunk);
+			}
+		}
+	}
+
+	// Adds queued chunks to the game until the given number of objects was added
+	private void buildWithinBudget(int budget) {
+		while (budget > 0 && !buildQueue.isEmpty()) {
+			Chunk chunk = buildQueue.peek();
+			if (chunk.isBuilt()) {
+				buildQueue.poll();
+				continue;
+			}
+			budget -= chunk.buildStep(terrain, flora, gameObjects, terrainLayer);
+		}
+	}
+
+	// Waits for the generator threads to finish their queued tasks (chunk saves included)
+	private void awaitGenerators() {
+		try {
+			if (!generators.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				System.err.println("Chunk generators did not stop; some chunks may not be saved");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Waits for a generated chunk, rethrowing generation failures on the game thread
+	private static ChunkData await(Future<ChunkData> request) {
+		try {
+			return request.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while generating a chunk", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Chunk generation failed", e.getCause());
+		}
+	}
+}
@@ -0,0 +1,431 @@
+package pepse.world.chunks;
+
+import danogl.util.Vector2;
+import pepse.world.TerrainColumns;
+import pepse.world.trees.TreeLayout;
+
+import java.awt.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saves chunk data (terrain columns, tree layouts and fruit states) to disk, so revisited chunks
+ * and later runs on the same seed load their chunks instead of generating them again.
+ * <p>
+ * Chunks are grouped into region files of REGION_CHUNKS consecutive chunks, in a directory per
+ * terrain seed. A region file starts with a header holding the file's world key, the end of the
+ * written data and the offset and length of each chunk's record; the records follow in a compact
+ * binary format, each with a table of the colors it uses. Region files are memory-mapped, so
+ * loading or saving a chunk copies its record out of or into the mapping, with no system call
+ * per chunk. A record that grows is appended at the end of the data; one that keeps its size
+ * (the usual case, where only fruit states change) is overwritten in place.
+ * <p>
+ * Safe to use from several threads.
+ */
+public class ChunkStore implements Closeable {
+	/** Number of consecutive chunks stored in a single region file. */
+	public static final int REGION_CHUNKS = 32;
+
+	private static final int MAGIC = 0x50434B52;
+	private static final int VERSION = 1;
+	// Header: magic, version, seed, base height, region index, end of data,
+	// then an (offset, length) slot per chunk
+	private static final int END_POSITION = 5 * Integer.BYTES;
+	private static final int SLOTS_POSITION = 6 * Integer.BYTES;
+	private static final int SLOT_SIZE = 2 * Integer.BYTES;
+	private static final int HEADER_SIZE = SLOTS_POSITION + REGION_CHUNKS * SLOT_SIZE;
+	// The mapping of a region file grows in steps of this many bytes
+	private static final int MAPPING_STEP = 64 * 1024;
+	// Colors are written as unsigned short indexes into the record's color table
+	private static final int MAX_RECORD_COLORS = 1 << Short.SIZE;
+	// Region files kept open at once; the least recently used one is closed beyond that
+	private static final int MAX_OPEN_REGIONS = 8;
+
+	private final Path directory;
+	private final int seed;
+	private final int baseHeight;
+	private final Map<Integer, Region> regions = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Region> eldest) {
+			if (size() <= MAX_OPEN_REGIONS) {
+				return false;
+			}
+			closeQuietly(eldest.getValue());
+			return true;
+		}
+	};
+	// Loaded colors, shared so chunks keep using the same few palette instances
+	private final Map<Integer, Color> colors = new ConcurrentHashMap<>();
+	private boolean closed = false;
+
+	// An open region file and its current mapping
+	private static class Region {
+		private final FileChannel channel;
+		private MappedByteBuffer mapping;
+
+		private Region(FileChannel channel, MappedByteBuffer mapping) {
+			this.channel = channel;
+			this.mapping = mapping;
+		}
+	}
+
+	/**
+	 * Opens (or creates) the store of a world.
+	 *
+	 * @param root       Directory holding the stores of all worlds.
+	 * @param seed       The terrain seed of the world.
+	 * @param baseHeight The terrain's base height (see Terrain.getBaseHeight); regions saved with
+	 *                   another base height describe another world and are discarded.
+	 * @throws IOException If the store's directory cannot be created.
+	 */
+	public ChunkStore(Path root, int seed, float baseHeight) throws IOException {
+		this.directory = Files.createDirectories(root.resolve(Integer.toString(seed)));
+		this.seed = seed;
+		this.baseHeight = Math.round(baseHeight);
+	}
+
+	/**
+	 * Returns the index of the region holding the given chunk.
+	 *
+	 * @param chunkIndex A chunk index.
+	 * @return The region index.
+	 */
+	public static int regionIndexOf(int chunkIndex) {
+		return Math.floorDiv(chunkIndex, REGION_CHUNKS);
+	}
+
+	/**
+	 * Loads a saved chunk.
+	 *
+	 * @param chunkIndex The chunk index.
+	 * @return The chunk's data, or null if it was never saved.
+	 * @throws IOException If the region file cannot be read or the record is damaged.
+	 */
+	public ChunkData load(int chunkIndex) throws IOException {
+		ByteBuffer record = readRecord(chunkIndex);
+		if (record == null) {
+			return null;
+		}
+		try {
+			ChunkData data = decode(record);
+			if (data.getIndex() != chunkIndex) {
+				throw new IOException("Record of chunk " + chunkIndex + " holds chunk " + data.getIndex());
+			}
+			return data;
+		} catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+				| NegativeArraySizeException e) {
+			throw new IOException("Damaged record of chunk " + chunkIndex, e);
+		}
+	}
+
+	/**
+	 * Saves a chunk, replacing any earlier save of it.
+	 *
+	 * @param data The chunk's data.
+	 * @throws IOException If the region file cannot be written.
+	 */
+	public void save(ChunkData data) throws IOException {
+		writeRecord(data.getIndex(), encode(data));
+	}
+
+	/**
+	 * Flushes and closes the open region files. Loading or saving a chunk afterwards fails.
+	 *
+	 * @throws IOException If a region file cannot be closed.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		closed = true;
+		IOException failure = null;
+		for (Region region : regions.values()) {
+			try {
+				region.mapping.force();
+				region.channel.close();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		regions.clear();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	// Copies the record of a chunk out of its region file, or returns null if there is none
+	private synchronized ByteBuffer readRecord(int chunkIndex) throws IOException {
+		Region region = region(regionIndexOf(chunkIndex), false);
+		if (region == null) {
+			return null;
+		}
+		int slot = slotPosition(chunkIndex);
+		int offset = region.mapping.getInt(slot);
+		int length = region.mapping.getInt(slot + Integer.BYTES);
+		if (length == 0) {
+			return null;
+		}
+		if (offset < HEADER_SIZE || length < 0 || offset + length > region.mapping.getInt(END_POSITION)) {
+			throw new IOException("Record of chunk " + chunkIndex + " lies outside its region file");
+		}
+		ByteBuffer record = ByteBuffer.allocate(length);
+		record.put(0, region.mapping, offset, length);
+		return record;
+	}
+
+	// Writes the record of a chunk, in place if it fits, then points the header at it
+	private synchronized void writeRecord(int chunkIndex, ByteBuffer record) throws IOException {
+		Region region = region(regionIndexOf(chunkIndex), true);
+		int slot = slotPosition(chunkIndex);
+		int offset = region.mapping.getInt(slot);
+		int length = region.mapping.getInt(slot + Integer.BYTES);
+		int newLength = record.remaining();
+		if (length == 0 || newLength > length) {
+			offset = region.mapping.getInt(END_POSITION);
+			ensureMapped(region, offset + newLength);
+			region.mapping.putInt(END_POSITION, offset + newLength);
+		}
+		region.mapping.put(offset, record, record.position(), newLength);
+		region.mapping.putInt(slot, offset);
+		region.mapping.putInt(slot + Integer.BYTES, newLength);
+	}
+
+	// Returns the open region file, opening (and if needed resetting) it.
+	// A missing file is created, or if create is false, null is returned.
+	private Region region(int regionIndex, boolean create) throws IOException {
+		if (closed) {
+			throw new IOException("The world cache is closed");
+		}
+		Region region = regions.get(regionIndex);
+		if (region != null) {
+			return region;
+		}
+		Path file = directory.resolve("region_" + regionIndex + ".bin");
+		if (!create && !Files.exists(file)) {
+			return null;
+		}
+		FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			boolean existing = channel.size() >= HEADER_SIZE;
+			region = new Region(channel, map(channel, Math.max(HEADER_SIZE, channel.size())));
+			if (!existing || !isHeaderOf(region.mapping, regionIndex)) {
+				// New file, or one written by another version or for another world: start over
+				MappedByteBuffer header = region.mapping;
+				for (int position = 0; position < HEADER_SIZE; position += Integer.BYTES) {
+					header.putInt(position, 0);
+				}
+				header.putInt(0, MAGIC);
+				header.putInt(Integer.BYTES, VERSION);
+				header.putInt(2 * Integer.BYTES, seed);
+				header.putInt(3 * Integer.BYTES, baseHeight);
+				header.putInt(4 * Integer.BYTES, regionIndex);
+				header.putInt(END_POSITION, HEADER_SIZE);
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		regions.put(regionIndex, region);
+		return region;
+	}
+
+	// Returns true if the header belongs to the given region of this world
+	private boolean isHeaderOf(MappedByteBuffer header, int regionIndex) {
+		int end = header.getInt(END_POSITION);
+		return header.getInt(0) == MAGIC
+				&& header.getInt(Integer.BYTES) == VERSION
+				&& header.getInt(2 * Integer.BYTES) == seed
+				&& header.getInt(3 * Integer.BYTES) == baseHeight
+				&& header.getInt(4 * Integer.BYTES) == regionIndex
+				&& end >= HEADER_SIZE && end <= header.capacity();
+	}
+
+	// Grows the mapping of a region file (and the file) to hold at least the given number of bytes
+	private static void ensureMapped(Region region, int size) throws IOException {
+		if (size > region.mapping.capacity()) {
+			region.mapping = map(region.channel, size);
+		}
+	}
+
+	// Maps a file from its start, rounding the size up to a whole mapping step
+	private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+		long steps = (size + MAPPING_STEP - 1) / MAPPING_STEP;
+		return channel.map(FileChannel.MapMode.READ_WRITE, 0, steps * MAPPING_STEP);
+	}
+
+	// Returns the header position of a chunk's (offset, length) slot
+	private static int slotPosition(int chunkIndex) {
+		return SLOTS_POSITION + Math.floorMod(chunkIndex, REGION_CHUNKS) * SLOT_SIZE;
+	}
+
+	// Closes a region file evicted from the open set, reporting (not throwing) failures
+	private static void closeQuietly(Region region) {
+		try {
+			region.mapping.force();
+			region.channel.close();
+		} catch (IOException e) {
+			System.err.println("Failed to close a world region file: " + e.getMessage());
+		}
+	}
+
+	// Encodes a chunk: its color table, terrain, then trees with their leaves and fruits,
+	// then fruit states. Colors are written as indexes into the table.
+	private static ByteBuffer encode(ChunkData data) throws IOException {
+		TerrainColumns terrain = data.getTerrain();
+		Color[] cellColors = terrain.getCellColors();
+		Map<Color, Integer> colorTable = new LinkedHashMap<>();
+		for (Color color : cellColors) {
+			colorTable.putIfAbsent(color, colorTable.size());
+		}
+		int size = 2 * Integer.BYTES + 3 * Integer.BYTES + terrain.getColumnCount() * Float.BYTES
+				+ Integer.BYTES + cellColors.length * Short.BYTES + Integer.BYTES;
+		for (TreeLayout tree : data.getTrees()) {
+			colorTable.putIfAbsent(tree.getTrunkColor(), colorTable.size());
+			for (Color color : tree.getLeafColors()) {
+				colorTable.putIfAbsent(color, colorTable.size());
+			}
+			for (Color color : tree.getFruitColors()) {
+				colorTable.putIfAbsent(color, colorTable.size());
+			}
+			size += 3 * Float.BYTES + Short.BYTES + 2 * Integer.BYTES
+					+ tree.getLeafPositions().size() * (3 * Float.BYTES + Short.BYTES)
+					+ tree.getFruitPositions().size() * (2 * Float.BYTES + Short.BYTES);
+		}
+		if (colorTable.size() > MAX_RECORD_COLORS) {
+			throw new IOException("Chunk " + data.getIndex() + " has too many colors to save");
+		}
+		size += colorTable.size() * Integer.BYTES;
+		float[] respawnTimes = data.getFruitRespawnTimes();
+		size += Integer.BYTES + (respawnTimes != null ? respawnTimes.length * Float.BYTES : 0);
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putInt(data.getIndex());
+		buffer.putInt(colorTable.size());
+		for (Color color : colorTable.keySet()) {
+			buffer.putInt(color.getRGB());
+		}
+
+		buffer.putInt(terrain.getStartX()).putInt(terrain.getColumnCount()).putInt(terrain.getDepth());
+		for (int column = 0; column < terrain.getColumnCount(); column++) {
+			buffer.putFloat(terrain.getTop(column));
+		}
+		buffer.putInt(cellColors.length);
+		for (Color color : cellColors) {
+			buffer.putShort(colorTable.get(color).shortValue());
+		}
+
+		buffer.putInt(data.getTrees().size());
+		for (TreeLayout tree : data.getTrees()) {
+			buffer.putFloat(tree.getX()).putFloat(tree.getTrunkTop()).putFloat(tree.getTrunkHeight());
+			buffer.putShort(colorTable.get(tree.getTrunkColor()).shortValue());
+			List<Vector2> leafPositions = tree.getLeafPositions();
+			buffer.putInt(leafPositions.size());
+			for (int i = 0; i < leafPositions.size(); i++) {
+				buffer.putFloat(leafPositions.get(i).x()).putFloat(leafPositions.get(i).y());
+				buffer.putShort(colorTable.get(tree.getLeafColors().get(i)).shortValue());
+				buffer.putFloat(tree.getLeafWindDelays()[i]);
+			}
+			List<Vector2> fruitPositions = tree.getFruitPositions();
+			buffer.putInt(fruitPositions.size());
+			for (int i = 0; i < fruitPositions.size(); i++) {
+				buffer.putFloat(fruitPositions.get(i).x()).putFloat(fruitPositions.get(i).y());
+				buffer.putShort(colorTable.get(tree.getFruitColors().get(i)).shortValue());
+			}
+		}
+
+		if (respawnTimes == null) {
+			buffer.putInt(0);
+		} else {
+			buffer.putInt(respawnTimes.length);
+			for (float respawnTime : respawnTimes) {
+				buffer.putFloat(respawnTime);
+			}
+		}
+		return buffer.flip();
+	}
+
+	// Decodes a record written by encode
+	private ChunkData decode(ByteBuffer buffer) {
+		int index = buffer.getInt();
+		Color[] colorTable = new Color[buffer.getInt()];
+		for (int i = 0; i < colorTable.length; i++) {
+			colorTable[i] = color(buffer.getInt());
+		}
+
+		int startX = buffer.getInt();
+		float[] tops = new float[buffer.getInt()];
+		int depth = buffer.getInt();
+		if (depth <= 0) {
+			throw new IllegalArgumentException("Invalid terrain depth " + depth);
+		}
+		for (int column = 0; column < tops.length; column++) {
+			tops[column] = buffer.getFloat();
+		}
+		int cellCount = buffer.getInt();
+		if (cellCount != (long) tops.length * depth) {
+			throw new IllegalArgumentException("Cell colors do not match the terrain columns");
+		}
+		Color[] cellColors = new Color[cellCount];
+		for (int i = 0; i < cellColors.length; i++) {
+			cellColors[i] = colorTable[Short.toUnsignedInt(buffer.getShort())];
+		}
+		TerrainColumns terrain = new TerrainColumns(startX, tops, cellColors, depth);
+
+		int treeCount = buffer.getInt();
+		List<TreeLayout> trees = new ArrayList<>(treeCount);
+		for (int tree = 0; tree < treeCount; tree++) {
+			float x = buffer.getFloat();
+			float trunkTop = buffer.getFloat();
+			float trunkHeight = buffer.getFloat();
+			Color trunkColor = colorTable[Short.toUnsignedInt(buffer.getShort())];
+			int leafCount = buffer.getInt();
+			List<Vector2> leafPositions = new ArrayList<>(leafCount);
+			List<Color> leafColors = new ArrayList<>(leafCount);
+			float[] leafWindDelays = new float[leafCount];
+			for (int i = 0; i < leafCount; i++) {
+				leafPositions.add(new Vector2(buffer.getFloat(), buffer.getFloat()));
+				leafColors.add(colorTable[Short.toUnsignedInt(buffer.getShort())]);
+				leafWindDelays[i] = buffer.getFloat();
+			}
+			int fruitCount = buffer.getInt();
+			List<Vector2> fruitPositions = new ArrayList<>(fruitCount);
+			List<Color> fruitColors = new ArrayList<>(fruitCount);
+			for (int i = 0; i < fruitCount; i++) {
+				fruitPositions.add(new Vector2(buffer.getFloat(), buffer.getFloat()));
+				fruitColors.add(colorTable[Short.toUnsignedInt(buffer.getShort())]);
+			}
+			trees.add(new TreeLayout(x, trunkTop, trunkHeight, trunkColor,
+					leafPositions, leafColors, leafWindDelays, fruitPositions, fruitColors));
+		}
+
+		int respawnCount = buffer.getInt();
+		float[] respawnTimes = null;
+		if (respawnCount > 0) {
+			respawnTimes = new float[respawnCount];
+			for (int i = 0; i < respawnCount; i++) {
+				respawnTimes[i] = buffer.getFloat();
+			}
+		}
+		ChunkData data = new ChunkData(index, terrain, trees, respawnTimes);
+		if (respawnTimes != null && respawnTimes.length != data.getFruitCount()) {
+			throw new IllegalArgumentException("Fruit states do not match the chunk's fruits");
+		}
+		return data;
+	}
+
+	// Returns the shared color instance of an ARGB value
+	private Color color(int argb) {
+		return colors.computeIfAbsent(argb, value -> new Color(value, true));
+	}
+}
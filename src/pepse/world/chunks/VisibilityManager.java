@@ -0,0 +1,51 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+/**
+ * Tracks the visible part of the world (the camera viewport plus a margin on each side)
+ * and decides which chunks should be active. Chunks outside it are made dormant, so the
+ * per-frame work is bounded by what the player can actually see.
+ */
+public class VisibilityManager {
+	private final GameObject viewport;
+	private final float margin;
+
+	/**
+	 * Constructs a visibility manager.
+	 *
+	 * @param viewport An object covering the visible area in world coordinates (e.g. the camera).
+	 * @param margin   Distance beyond each side of the viewport that still counts as visible,
+	 *                 so objects wake up before they scroll into view.
+	 */
+	public VisibilityManager(GameObject viewport, float margin) {
+		this.viewport = viewport;
+		this.margin = margin;
+	}
+
+	/**
+	 * Returns whether any part of the given horizontal range is within the visible area.
+	 *
+	 * @param minX Left edge of the range.
+	 * @param maxX Right edge of the range.
+	 * @return True if the range is visible.
+	 */
+	public boolean isVisible(float minX, float maxX) {
+		float viewMinX = viewport.getTopLeftCorner().x() - margin;
+		float viewMaxX = viewport.getTopLeftCorner().x() + viewport.getDimensions().x() + margin;
+		return maxX >= viewMinX && minX <= viewMaxX;
+	}
+
+	/**
+	 * Wakes the chunk if it is visible and makes it dormant otherwise.
+	 *
+	 * @param chunk        The chunk to update.
+	 * @param gameObjects  The game object collection the chunk is built into.
+	 * @param terrainLayer The layer on which terrain blocks are placed.
+	 */
+	public void apply(Chunk chunk, GameObjectCollection gameObjects, int terrainLayer) {
+		float minX = (float) chunk.getIndex() * ChunkManager.CHUNK_WIDTH;
+		chunk.setActive(isVisible(minX, minX + ChunkManager.CHUNK_WIDTH), gameObjects, terrainLayer);
+	}
+}
@@ -1,8 +1,11 @@
 package pepse.world.trees;
 
 import danogl.collisions.GameObjectCollection;
+import pepse.util.WorldRandom;
 import pepse.world.Terrain;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -15,10 +18,14 @@ public class Flora {
 	/** Distance between tree planting positions (in pixels). */
 	private static final int TREE_DISTANCE = 30;
 
+	// Separates the tree random streams from other uses of the world seed
+	private static final int TREE_SALT = 2;
+
 	private final Terrain terrain;
 	private final GameObjectCollection gameObjects;
 	private final int layer;
-	private final Random rand;
+	private final int seed;
+	private final WindAnimator wind;
 
 	/**
 	 * Constructs a Forest instance that can plant trees using the given dependencies.
@@ -26,12 +33,16 @@ public class Flora {
 	 * @param terrain Terrain object to determine tree height.
 	 * @param gameObjects Game object collection to add trees to.
 	 * @param layer Layer on which to place the trees.
+	 * @param seed The world seed; the same seed always grows the same forest.
+	 * @param wind Animator that sways the leaves of the planted trees.
 	 */
-	public Flora(Terrain terrain, GameObjectCollection gameObjects, int layer) {
+	public Flora(Terrain terrain, GameObjectCollection gameObjects, int layer, int seed,
+				 WindAnimator wind) {
 		this.terrain = terrain;
 		this.gameObjects = gameObjects;
 		this.layer = layer;
-		this.rand = new Random();
+		this.seed = seed;
+		this.wind = wind;
 	}
 
 	/**
@@ -39,12 +50,45 @@ public class Flora {
 	 *
 	 * @param minX Start of the horizontal range (inclusive).
 	 * @param maxX End of the horizontal range (exclusive).
+	 * @return The trees planted in the range.
+	 */
+	public List<Tree> createInRange(int minX, int maxX) {
+		List<Tree> trees = new ArrayList<>();
+		for (TreeLayout layout : layoutInRange(minX, maxX)) {
+			trees.add(build(layout, true));
+		}
+		return trees;
+	}
+
+	/**
+	 * Chooses where trees grow in the range [minX, maxX) and computes their layouts,
+	 * without creating any game object. Safe to call from any thread.
+	 * Every planting position has its own random source derived from the seed and the position,
+	 * so a range always gets the same trees, however it is split into calls.
+	 *
+	 * @param minX Start of the horizontal range (inclusive).
+	 * @param maxX End of the horizontal range (exclusive).
+	 * @return The layouts of the trees in the range.
 	 */
-	public void createInRange(int minX, int maxX) {
+	public List<TreeLayout> layoutInRange(int minX, int maxX) {
+		List<TreeLayout> layouts = new ArrayList<>();
 		for (int x = minX; x < maxX; x += TREE_DISTANCE) {
+			Random rand = WorldRandom.at(seed, x, TREE_SALT);
 			if (rand.nextFloat() < TREE_PLANT_PROBABILITY) {
-				Tree.create(x, terrain, gameObjects, layer);
+				layouts.add(Tree.layout(x, terrain, rand));
 			}
 		}
+		return layouts;
+	}
+
+	/**
+	 * Creates a tree from its layout and adds it to the game. Must be called on the game thread.
+	 *
+	 * @param layout The layout of the tree.
+	 * @param active False to create the tree dormant, out of the game (see Tree.setActive).
+	 * @return The created tree.
+	 */
+	public Tree build(TreeLayout layout, boolean active) {
+		return Tree.build(layout, gameObjects, layer, wind, active);
 	}
 }
@@ -3,14 +3,13 @@ package pepse.world.trees;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
-import danogl.components.ScheduledTask;
 import danogl.components.Transition;
-import danogl.gui.rendering.OvalRenderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
+import pepse.util.RenderableCache;
 
 import java.awt.*;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a fruit that appears on or near trees and can be collected by the avatar.
@@ -33,18 +32,21 @@ public class Fruit extends GameObject {
 	private final GameObjectCollection gameObjects;
 	private final Vector2 spawnPosition;
 	private final GameObject fruitRestorer;
+	private boolean consumed = false;
+	private boolean active = false;
+	private float respawnRemaining = 0;
 
 	/**
-	 * Constructs a fruit object.
+	 * Constructs a fruit object. It starts dormant, out of the game; setActive(true) adds it.
 	 *
 	 * @param position     Position where fruit will appear.
+	 * @param color        Color of the fruit, see pickColor.
 	 * @param gameObjects  Game object collection (for adding/removing).
 	 */
-	public Fruit(Vector2 position, GameObjectCollection gameObjects) {
+	public Fruit(Vector2 position, Color color, GameObjectCollection gameObjects) {
 		super(position,
 				new Vector2(FRUIT_DIAMETER, FRUIT_DIAMETER),
-				new OvalRenderable(ColorSupplier.approximateColor(
-						FRUIT_COLORS[new Random().nextInt(FRUIT_COLORS.length)])));
+				RenderableCache.oval(color));
 
 		this.gameObjects = gameObjects;
 		this.spawnPosition = new Vector2(
@@ -53,12 +55,23 @@ public class Fruit extends GameObject {
 
 		setTag(FRUIT_TAG);
 
+		// Counts down the respawn timer; in the game only while the fruit is consumed and active
 		this.fruitRestorer = new GameObject(Vector2.ZERO, Vector2.ZERO, null);
-		gameObjects.addGameObject(this.fruitRestorer);
+		this.fruitRestorer.addComponent(this::updateRespawnTimer);
 
 		initializeFloatingEffect();
 	}
 
+	/**
+	 * Picks one of the fruit colors, slightly varied.
+	 *
+	 * @param random Random source to draw from.
+	 * @return A fruit color.
+	 */
+	public static Color pickColor(RandomGenerator random) {
+		return ColorSupplier.paletteColor(FRUIT_COLORS[random.nextInt(FRUIT_COLORS.length)], random);
+	}
+
 	/**
 	 * @return The amount of energy gained when consuming the fruit.
 	 */
@@ -66,25 +79,104 @@ public class Fruit extends GameObject {
 		return ENERGY_GAIN;
 	}
 
+	/**
+	 * @return The x-position of the fruit's center. Fruits only float vertically, so it never changes.
+	 */
+	public float getSpawnX() {
+		return spawnPosition.x();
+	}
+
+	/**
+	 * @return True if the fruit was consumed and has not respawned yet.
+	 */
+	public boolean isConsumed() {
+		return consumed;
+	}
+
+	/**
+	 * @return Time left until the fruit respawns (in seconds), or 0 if it was not consumed.
+	 */
+	public float getRespawnRemaining() {
+		return consumed ? respawnRemaining : 0;
+	}
+
 	/**
 	 * Called when the avatar collects the fruit. Schedules respawn.
 	 */
 	public void consume() {
+		consumed = true;
+		respawnRemaining = RESPAWN_TIME_SECONDS;
 		gameObjects.removeGameObject(this, Layer.STATIC_OBJECTS);
+		gameObjects.addGameObject(fruitRestorer);
+	}
 
-		new ScheduledTask(
-				fruitRestorer,
-				RESPAWN_TIME_SECONDS,
-				false,
-				this::respawn
-		);
+	/**
+	 * Puts the fruit back in a consumed state saved earlier (see getRespawnRemaining).
+	 *
+	 * @param remaining Time left until the fruit respawns (in seconds). Nothing happens if it is not positive.
+	 */
+	public void restoreRespawnTimer(float remaining) {
+		if (remaining <= 0) {
+			return;
+		}
+		if (!consumed && active) {
+			gameObjects.removeGameObject(this, Layer.STATIC_OBJECTS);
+			gameObjects.addGameObject(fruitRestorer);
+		}
+		consumed = true;
+		respawnRemaining = remaining;
+	}
+
+	/**
+	 * Puts the fruit to sleep (removed from the game, so it is neither updated nor collided with)
+	 * or wakes it up again. A consumed fruit stays hidden until it respawns; its respawn timer
+	 * is paused while the fruit is dormant and counts down the remaining time once it wakes.
+	 *
+	 * @param active True to wake the fruit, false to make it dormant.
+	 */
+	public void setActive(boolean active) {
+		if (this.active == active) {
+			return;
+		}
+		this.active = active;
+		if (consumed) {
+			if (active) {
+				gameObjects.addGameObject(fruitRestorer);
+			} else {
+				gameObjects.removeGameObject(fruitRestorer);
+			}
+		} else if (active) {
+			gameObjects.addGameObject(this, Layer.STATIC_OBJECTS);
+		} else {
+			gameObjects.removeGameObject(this, Layer.STATIC_OBJECTS);
+		}
+	}
+
+	/**
+	 * Removes the fruit (or its respawn timer, if it was consumed) from the game for good.
+	 */
+	public void remove() {
+		setActive(false);
+	}
+
+	// Respawns the fruit once its respawn time has passed
+	private void updateRespawnTimer(float deltaTime) {
+		if (!consumed) {
+			return;
+		}
+		respawnRemaining -= deltaTime;
+		if (respawnRemaining <= 0) {
+			respawn();
+		}
 	}
 
 	/**
 	 * Respawn fruit at its original position.
 	 */
 	private void respawn() {
+		consumed = false;
 		setCenter(spawnPosition);
+		gameObjects.removeGameObject(fruitRestorer);
 		gameObjects.addGameObject(this, Layer.STATIC_OBJECTS);
 	}
 
@@ -1,73 +1,49 @@
 package pepse.world.trees;
 
 import danogl.GameObject;
-import danogl.components.Transition;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
-import danogl.components.ScheduledTask;
+import pepse.util.RenderableCache;
 
 import java.awt.*;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
- * Represents a single leaf in the Pepse tree system. The leaf sways with the wind.
+ * Represents a single leaf in the Pepse tree system. The leaf sways with the wind,
+ * animated together with all other leaves by a WindAnimator.
  */
 public class Leaf extends GameObject {
+	/** The size of a leaf at rest. */
+	static final Vector2 LEAF_SIZE = new Vector2(25, 25);
 	private static final Color LEAF_COLOR = new Color(50, 200, 30);
-	private static final Vector2 LEAF_SIZE = new Vector2(25, 25);
-	//wind sway.
-	private static final float MIN_ANGLE = -5f;
-	private static final float MAX_ANGLE = 5f;
-	//wind fluttering.
-	private static final float MIN_WIDTH_FACTOR = 0.8f;
-	private static final float MAX_WIDTH_FACTOR = 1.2f;
-
-	private static final float DURATION = 0.5f;
-
-	private final Random random = new Random();
 
 	/**
 	 * Constructs a new LeafComponent.
 	 *
 	 * @param position the position of the leaf in the world
+	 * @param color    the color of the leaf, see pickColor
 	 */
-	public Leaf(Vector2 position) {
-		super(position, LEAF_SIZE, new RectangleRenderable(ColorSupplier.approximateColor(LEAF_COLOR)));
-		new ScheduledTask(
-				this,
-				random.nextFloat(),
-				false,
-				this::initializeWindTransitions
-		);
+	public Leaf(Vector2 position, Color color) {
+		super(position, LEAF_SIZE, RenderableCache.rectangle(color));
 	}
 
 	/**
-	 * Adds transitions to simulate wind swaying and leaf width changes.
+	 * Picks a leaf color, slightly varied around the base leaf color.
+	 *
+	 * @param random Random source to draw from.
+	 * @return A leaf color.
 	 */
-	private void initializeWindTransitions() {
-		// Swaying rotation using a sinusoidal-like oscillation
-		new Transition<>(
-				this,
-				angle -> this.renderer().setRenderableAngle(angle),
-				MIN_ANGLE,
-				MAX_ANGLE,
-				Transition.LINEAR_INTERPOLATOR_FLOAT,
-				DURATION,
-				Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-				null
-		);
+	public static Color pickColor(RandomGenerator random) {
+		return ColorSupplier.paletteColor(LEAF_COLOR, random);
+	}
 
-		// Fluttering width effect using horizontal scale transitions
-		new Transition<>(
-				this,
-				scale -> this.setDimensions(new Vector2(LEAF_SIZE.x() * scale, LEAF_SIZE.y())),
-				MIN_WIDTH_FACTOR,
-				MAX_WIDTH_FACTOR,
-				Transition.LINEAR_INTERPOLATOR_FLOAT,
-				DURATION,
-				Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-				null
-		);
+	/**
+	 * Picks a delay before a leaf starts swaying, so leaves don't all move in sync.
+	 *
+	 * @param random Random source to draw from.
+	 * @return A delay in seconds, in [0, 1).
+	 */
+	public static float pickWindDelay(RandomGenerator random) {
+		return random.nextFloat();
 	}
-}
\ No newline at end of file
+}
@@ -2,20 +2,21 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
 import danogl.components.GameObjectPhysics;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
+import pepse.util.RenderableCache;
 import pepse.world.Terrain;
 
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 /**
  * Generates a single tree consisting of a trunk, leaves, and optional fruit.
+ * The created tree keeps track of its parts so it can later be removed from the world.
  */
 public class Tree {
 	private static final Color TRUNK_COLOR = new Color(100, 50, 20);
@@ -29,32 +30,39 @@ public class Tree {
 	/** Probability to generate a fruit in a given position. */
 	private static final float FRUIT_PROBABILITY = 0.2f;
 
+	private final GameObjectCollection gameObjects;
+	private final int layer;
+	private final WindAnimator wind;
+	private final GameObject trunk;
+	private final float[] leafWindDelays;
+	private final List<Leaf> leaves = new ArrayList<>();
+	private final List<Fruit> fruits = new ArrayList<>();
+	private boolean active;
+
+	private Tree(GameObject trunk, float[] leafWindDelays, GameObjectCollection gameObjects, int layer,
+				 WindAnimator wind, boolean active) {
+		this.trunk = trunk;
+		this.leafWindDelays = leafWindDelays;
+		this.gameObjects = gameObjects;
+		this.layer = layer;
+		this.wind = wind;
+		this.active = active;
+	}
+
 	/**
-	 * Create a tree at the specified x-coordinate.
+	 * Computes the layout of a tree at the specified x-coordinate, without creating any
+	 * game object. Safe to call from any thread.
 	 *
-	 * @param x           X-position to plant the tree.
-	 * @param terrain     Terrain used to find ground height.
-	 * @param gameObjects The collection to place trunk, leaves, and fruits.
-	 * @param layer       Rendering layer to use.
+	 * @param x       X-position to plant the tree.
+	 * @param terrain Terrain used to find ground height.
+	 * @param rand    Random source for the tree shape and colors; a seeded source gives the same tree.
+	 * @return The layout of the tree.
 	 */
-	public static void create(float x, Terrain terrain,
-							  GameObjectCollection gameObjects,
-							  int layer) {
-		Random rand = new Random();
-
+	public static TreeLayout layout(float x, Terrain terrain, Random rand) {
 		float trunkHeight = rand.nextInt(MIN_TRUNK_HEIGHT, MAX_TRUNK_HEIGHT);
 		float groundHeight = terrain.groundHeightAt(x);
 		float trunkTop = groundHeight - trunkHeight;
-
-		// Create the trunk and place it
-		GameObject trunk = new GameObject(
-				new Vector2(x, trunkTop),
-				new Vector2(TRUNK_WIDTH, trunkHeight),
-				new RectangleRenderable(ColorSupplier.approximateColor(TRUNK_COLOR))
-		);
-		trunk.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
-		trunk.physics().preventIntersectionsFromDirection(Vector2.ZERO);
-		gameObjects.addGameObject(trunk, layer);
+		Color trunkColor = ColorSupplier.paletteColor(TRUNK_COLOR, rand);
 
 		// Generate grid of possible positions for leaves and fruit
 		int cols = (int) (LEAF_SPREAD_DIMENSION.x() / LEAF_SIZE);
@@ -78,20 +86,136 @@ public class Tree {
 			}
 		}
 
-		// Add leaves
+		// Pick leaves
 		Collections.shuffle(possibleLeafPositions, rand);
 		int numLeaves = (int) (LEAF_PROBABILITY * possibleLeafPositions.size());
+		List<Vector2> leafPositions = new ArrayList<>(possibleLeafPositions.subList(0, numLeaves));
+		List<Color> leafColors = new ArrayList<>(numLeaves);
+		float[] leafWindDelays = new float[numLeaves];
 		for (int i = 0; i < numLeaves; i++) {
-			Leaf leaf = new Leaf(possibleLeafPositions.get(i));
-			gameObjects.addGameObject(leaf, layer);
+			leafColors.add(Leaf.pickColor(rand));
+			leafWindDelays[i] = Leaf.pickWindDelay(rand);
 		}
 
-		// Add fruits
+		// Pick fruits
 		Collections.shuffle(possibleFruitPositions, rand);
 		int numFruits = (int) (FRUIT_PROBABILITY * possibleFruitPositions.size());
+		List<Vector2> fruitPositions = new ArrayList<>(possibleFruitPositions.subList(0, numFruits));
+		List<Color> fruitColors = new ArrayList<>(numFruits);
 		for (int i = 0; i < numFruits; i++) {
-			Fruit fruit = new Fruit(possibleFruitPositions.get(i), gameObjects);
-			gameObjects.addGameObject(fruit, Layer.STATIC_OBJECTS);
+			fruitColors.add(Fruit.pickColor(rand));
+		}
+
+		return new TreeLayout(x, trunkTop, trunkHeight, trunkColor,
+				leafPositions, leafColors, leafWindDelays, fruitPositions, fruitColors);
+	}
+
+	/**
+	 * Creates the trunk, leaves and fruits of a tree layout, and adds them to the game unless
+	 * the tree is created dormant. Must be called on the game thread.
+	 *
+	 * @param layout      The layout of the tree.
+	 * @param gameObjects The collection to place trunk, leaves, and fruits.
+	 * @param layer       Rendering layer to use.
+	 * @param wind        Animator that sways the leaves.
+	 * @param active      False to create the tree dormant (see setActive): kept out of the game,
+	 *                    and its leaves are not animated, until it is woken.
+	 * @return The created tree.
+	 */
+	public static Tree build(TreeLayout layout, GameObjectCollection gameObjects, int layer,
+							 WindAnimator wind, boolean active) {
+		// Create the trunk and place it
+		GameObject trunk = new GameObject(
+				new Vector2(layout.getX(), layout.getTrunkTop()),
+				new Vector2(TRUNK_WIDTH, layout.getTrunkHeight()),
+				RenderableCache.rectangle(layout.getTrunkColor())
+		);
+		trunk.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+		trunk.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+		Tree tree = new Tree(trunk, layout.getLeafWindDelays(), gameObjects, layer, wind, active);
+
+		// Create leaves; add them and the trunk to the game unless the tree is dormant
+		List<Vector2> leafPositions = layout.getLeafPositions();
+		for (int i = 0; i < leafPositions.size(); i++) {
+			tree.leaves.add(new Leaf(leafPositions.get(i), layout.getLeafColors().get(i)));
+		}
+		if (active) {
+			tree.addToGame();
+		}
+
+		// Create fruits
+		List<Vector2> fruitPositions = layout.getFruitPositions();
+		for (int i = 0; i < fruitPositions.size(); i++) {
+			Fruit fruit = new Fruit(fruitPositions.get(i), layout.getFruitColors().get(i), gameObjects);
+			fruit.setActive(active);
+			tree.fruits.add(fruit);
+		}
+		return tree;
+	}
+
+	/**
+	 * @return The x-position of the left edge of the trunk.
+	 */
+	public float getX() {
+		return trunk.getTopLeftCorner().x();
+	}
+
+	/**
+	 * @return The fruits of this tree.
+	 */
+	public List<Fruit> getFruits() {
+		return fruits;
+	}
+
+	/**
+	 * Makes the tree dormant by removing its objects from the game and stopping its leaves'
+	 * animation (the objects are kept, so nothing is regenerated), or adds them back.
+	 * Dormant objects are neither updated nor collided with.
+	 *
+	 * @param active True to add the tree back to the game, false to make it dormant.
+	 */
+	public void setActive(boolean active) {
+		if (this.active == active) {
+			return;
+		}
+		this.active = active;
+		if (active) {
+			addToGame();
+		} else {
+			removeFromGame();
+		}
+		for (Fruit fruit : fruits) {
+			fruit.setActive(active);
+		}
+	}
+
+	/**
+	 * Removes the trunk, leaves and fruits of this tree from the game.
+	 */
+	public void remove() {
+		if (active) {
+			removeFromGame();
+		}
+		for (Fruit fruit : fruits) {
+			fruit.remove();
+		}
+	}
+
+	// Adds the trunk and leaves to the game, and starts animating the leaves
+	private void addToGame() {
+		gameObjects.addGameObject(trunk, layer);
+		for (int i = 0; i < leaves.size(); i++) {
+			gameObjects.addGameObject(leaves.get(i), layer);
+			wind.register(leaves.get(i), leafWindDelays[i]);
+		}
+	}
+
+	// Removes the trunk and leaves from the game, and stops animating the leaves
+	private void removeFromGame() {
+		gameObjects.removeGameObject(trunk, layer);
+		for (Leaf leaf : leaves) {
+			gameObjects.removeGameObject(leaf, layer);
+			wind.unregister(leaf);
 		}
 	}
 }
@@ -0,0 +1,120 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.util.List;
+
+/**
+ * The pure data describing a single tree: trunk geometry, and the positions and colors
+ * of its leaves and fruits. Creating it touches no game objects, so it can be done
+ * off the game thread.
+ */
+public class TreeLayout {
+	private final float x;
+	private final float trunkTop;
+	private final float trunkHeight;
+	private final Color trunkColor;
+	private final List<Vector2> leafPositions;
+	private final List<Color> leafColors;
+	private final float[] leafWindDelays;
+	private final List<Vector2> fruitPositions;
+	private final List<Color> fruitColors;
+
+	/**
+	 * Constructs a tree layout.
+	 *
+	 * @param x              X-position of the trunk.
+	 * @param trunkTop       Y-position of the top of the trunk.
+	 * @param trunkHeight    Height of the trunk.
+	 * @param trunkColor     Color of the trunk.
+	 * @param leafPositions  Top-left corner of every leaf.
+	 * @param leafColors     Color of every leaf.
+	 * @param leafWindDelays Delay before every leaf starts swaying (in seconds).
+	 * @param fruitPositions Top-left corner of every fruit.
+	 * @param fruitColors    Color of every fruit.
+	 */
+	public TreeLayout(float x, float trunkTop, float trunkHeight, Color trunkColor,
+					  List<Vector2> leafPositions, List<Color> leafColors, float[] leafWindDelays,
+					  List<Vector2> fruitPositions, List<Color> fruitColors) {
+		this.x = x;
+		this.trunkTop = trunkTop;
+		this.trunkHeight = trunkHeight;
+		this.trunkColor = trunkColor;
+		this.leafPositions = leafPositions;
+		this.leafColors = leafColors;
+		this.leafWindDelays = leafWindDelays;
+		this.fruitPositions = fruitPositions;
+		this.fruitColors = fruitColors;
+	}
+
+	/**
+	 * @return X-position of the trunk.
+	 */
+	public float getX() {
+		return x;
+	}
+
+	/**
+	 * @return Y-position of the top of the trunk.
+	 */
+	public float getTrunkTop() {
+		return trunkTop;
+	}
+
+	/**
+	 * @return Height of the trunk.
+	 */
+	public float getTrunkHeight() {
+		return trunkHeight;
+	}
+
+	/**
+	 * @return Color of the trunk.
+	 */
+	public Color getTrunkColor() {
+		return trunkColor;
+	}
+
+	/**
+	 * @return Top-left corner of every leaf.
+	 */
+	public List<Vector2> getLeafPositions() {
+		return leafPositions;
+	}
+
+	/**
+	 * @return Color of every leaf, matching getLeafPositions.
+	 */
+	public List<Color> getLeafColors() {
+		return leafColors;
+	}
+
+	/**
+	 * @return Delay before every leaf starts swaying, matching getLeafPositions.
+	 */
+	public float[] getLeafWindDelays() {
+		return leafWindDelays;
+	}
+
+	/**
+	 * @return Top-left corner of every fruit.
+	 */
+	public List<Vector2> getFruitPositions() {
+		return fruitPositions;
+	}
+
+	/**
+	 * @return Color of every fruit, matching getFruitPositions.
+	 */
+	public List<Color> getFruitColors() {
+		return fruitColors;
+	}
+
+	/**
+	 * @return The number of game objects the tree is made of.
+	 */
+	public int getObjectCount() {
+		return 1 + leafPositions.size() + fruitPositions.size();
+	}
+}
@@ -0,0 +1,160 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.util.Profiler;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Sways and flutters every registered leaf from a single global clock, in one pass per frame.
+ * Per-leaf state (start time, x-position, current width step) is kept in primitive arrays,
+ * and leaf widths are taken from a precomputed table, so animating allocates nothing.
+ * Leaves outside the viewport (plus a margin) are skipped.
+ */
+public class WindAnimator extends GameObject {
+	//wind sway.
+	private static final float MIN_ANGLE = -5f;
+	private static final float MAX_ANGLE = 5f;
+	//wind fluttering.
+	private static final float MIN_WIDTH_FACTOR = 0.8f;
+	private static final float MAX_WIDTH_FACTOR = 1.2f;
+	// Number of distinct leaf widths between the minimal and maximal width factor
+	private static final int WIDTH_STEPS = 16;
+	// Time to go from one extreme to the other (a full back-and-forth takes twice as long)
+	private static final float DURATION = 0.5f;
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final Vector2[] LEAF_WIDTHS = createLeafWidths();
+
+	private Leaf[] leaves = new Leaf[INITIAL_CAPACITY];
+	private float[] startTimes = new float[INITIAL_CAPACITY];
+	private float[] xs = new float[INITIAL_CAPACITY];
+	private int[] widthSteps = new int[INITIAL_CAPACITY];
+	// Slot of every registered leaf in the arrays above
+	private final Map<Leaf, Integer> slots = new IdentityHashMap<>();
+	private int leafCount = 0;
+	private double clock = 0;
+	private GameObject viewport;
+	private float cullMargin;
+
+	/**
+	 * Constructs an animator with no leaves. It must be added to the game to run.
+	 */
+	public WindAnimator() {
+		super(Vector2.ZERO, Vector2.ZERO, null);
+	}
+
+	/**
+	 * Limits animation to leaves near the given viewport. Without a viewport every leaf is animated.
+	 *
+	 * @param viewport   An object covering the visible area in world coordinates (e.g. the camera).
+	 * @param cullMargin Distance beyond each side of the viewport within which leaves keep moving.
+	 */
+	public void setViewport(GameObject viewport, float cullMargin) {
+		this.viewport = viewport;
+		this.cullMargin = cullMargin;
+	}
+
+	/**
+	 * Starts animating a leaf.
+	 *
+	 * @param leaf      The leaf to animate.
+	 * @param windDelay Time (from now) before the leaf starts moving, so leaves don't move in sync.
+	 */
+	public void register(Leaf leaf, float windDelay) {
+		if (leafCount == leaves.length) {
+			grow();
+		}
+		leaves[leafCount] = leaf;
+		startTimes[leafCount] = (float) clock + windDelay;
+		xs[leafCount] = leaf.getTopLeftCorner().x();
+		widthSteps[leafCount] = -1;
+		slots.put(leaf, leafCount);
+		leafCount++;
+	}
+
+	/**
+	 * Stops animating a leaf.
+	 *
+	 * @param leaf A leaf previously registered.
+	 */
+	public void unregister(Leaf leaf) {
+		Integer index = slots.remove(leaf);
+		if (index == null) {
+			return;
+		}
+		// Move the last leaf into the freed slot
+		leafCount--;
+		leaves[index] = leaves[leafCount];
+		startTimes[index] = startTimes[leafCount];
+		xs[index] = xs[leafCount];
+		widthSteps[index] = widthSteps[leafCount];
+		leaves[leafCount] = null;
+		if (index < leafCount) {
+			slots.put(leaves[index], index);
+		}
+	}
+
+	/**
+	 * Advances the global clock and updates the angle and width of every visible leaf.
+	 *
+	 * @param deltaTime Time since last update.
+	 */
+	@Override
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		long start = Profiler.start();
+		clock += deltaTime;
+
+		float minX = -Float.MAX_VALUE;
+		float maxX = Float.MAX_VALUE;
+		if (viewport != null) {
+			minX = viewport.getTopLeftCorner().x() - cullMargin;
+			maxX = minX + viewport.getDimensions().x() + 2 * cullMargin;
+		}
+
+		float now = (float) clock;
+		for (int i = 0; i < leafCount; i++) {
+			float time = now - startTimes[i];
+			if (time < 0 || xs[i] < minX || xs[i] > maxX) {
+				continue;
+			}
+			float progress = backAndForth(time / DURATION);
+			leaves[i].renderer().setRenderableAngle(MIN_ANGLE + (MAX_ANGLE - MIN_ANGLE) * progress);
+
+			int widthStep = Math.round(progress * (WIDTH_STEPS - 1));
+			if (widthStep != widthSteps[i]) {
+				widthSteps[i] = widthStep;
+				leaves[i].setDimensions(LEAF_WIDTHS[widthStep]);
+			}
+		}
+		Profiler.stop(Profiler.Section.WIND, start);
+	}
+
+	// Maps time (in half periods) to a triangle wave going 0 -> 1 -> 0, like TRANSITION_BACK_AND_FORTH
+	private static float backAndForth(float halfPeriods) {
+		float phase = halfPeriods % 2f;
+		return phase <= 1f ? phase : 2f - phase;
+	}
+
+	// Doubles the capacity of all per-leaf arrays
+	private void grow() {
+		int capacity = leaves.length * 2;
+		leaves = Arrays.copyOf(leaves, capacity);
+		startTimes = Arrays.copyOf(startTimes, capacity);
+		xs = Arrays.copyOf(xs, capacity);
+		widthSteps = Arrays.copyOf(widthSteps, capacity);
+	}
+
+	// The leaf dimensions at every width step
+	private static Vector2[] createLeafWidths() {
+		Vector2[] widths = new Vector2[WIDTH_STEPS];
+		for (int step = 0; step < WIDTH_STEPS; step++) {
+			float factor = MIN_WIDTH_FACTOR + (MAX_WIDTH_FACTOR - MIN_WIDTH_FACTOR) * step / (WIDTH_STEPS - 1);
+			widths[step] = new Vector2(Leaf.LEAF_SIZE.x() * factor, Leaf.LEAF_SIZE.y());
+		}
+		return widths;
+	}
+}
@@ -2,25 +2,25 @@ package pepse.world.weather;
 
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
-import danogl.components.Transition;
 import danogl.components.CoordinateSpace;
-import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
 
 import java.awt.*;
-import java.util.ArrayList;
+import java.awt.image.BufferedImage;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a cloud made of block-shaped pixels that moves across the screen.
+ * The blocks are baked into a single image when the cloud is created, so the whole cloud
+ * is one game object moved by its velocity. Its bounding box is computed once, so locating
+ * the cloud is O(1).
  */
-public class Cloud {
+public class Cloud extends GameObject {
 	private static final Color BASE_CLOUD_COLOR = new Color(255, 255, 255);
 	private static final int BLOCK_SIZE = 30;
-	private static final float CLOUD_SPEED_PX_PER_SEC = 0.1f;
-	private static final float CLOUD_TRAVEL_DISTANCE = 800f;
 
 	private static final List<List<Integer>> CLOUD_MATRIX = List.of(
 			List.of(0, 1, 1, 0, 0, 0),
@@ -29,97 +29,85 @@ public class Cloud {
 			List.of(0, 1, 1, 1, 0, 0),
 			List.of(0, 0, 0, 0, 0, 0)
 	);
+	private static final int MATRIX_ROWS = CLOUD_MATRIX.size();
+	private static final int MATRIX_COLS = CLOUD_MATRIX.get(0).size();
 
-	private final List<GameObject> cloudBlocks;
-	private final Vector2 initialTopLeft;
+	private final GameObjectCollection gameObjects;
+	private final int layer;
+	// The bounding box of the set cells, relative to the cloud's top left
+	private float minOffsetX = Float.MAX_VALUE;
+	private float maxOffsetX = -Float.MAX_VALUE;
+	private float maxOffsetY = -Float.MAX_VALUE;
 
 	/**
-	 * Constructs a cloud object and adds it to the game.
+	 * Constructs a cloud object and adds it to the game. The cloud drifts right at the given speed.
 	 *
 	 * @param topLeftCorner  The initial top-left corner where the cloud will appear.
-	 * @param gameObjects    The collection to which the cloud blocks will be added.
+	 * @param gameObjects    The collection to which the cloud will be added.
 	 * @param layer          The rendering layer for the cloud.
+	 * @param speed          Horizontal speed of the cloud (in pixels per second).
+	 * @param random         Random source for the shades of the cloud's blocks.
 	 */
-	public Cloud(Vector2 topLeftCorner, GameObjectCollection gameObjects, int layer) {
-		this.initialTopLeft = topLeftCorner;
-		this.cloudBlocks = new ArrayList<>();
-
-		createCloudBlocks(topLeftCorner, gameObjects, layer);
-		animateCloudMovement(topLeftCorner.x(), gameObjects);
+	public Cloud(Vector2 topLeftCorner, GameObjectCollection gameObjects, int layer, float speed,
+				 RandomGenerator random) {
+		super(topLeftCorner, new Vector2(MATRIX_COLS * BLOCK_SIZE, MATRIX_ROWS * BLOCK_SIZE), null);
+		this.gameObjects = gameObjects;
+		this.layer = layer;
+
+		renderer().setRenderable(new ImageRenderable(bakeCloudImage(random)));
+		setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+		transform().setVelocityX(speed);
+		gameObjects.addGameObject(this, layer);
 	}
 
 	/**
-	 * Returns the current bottom-center position of the cloud.
-	 * Used for spawning rain drops.
-	 *
-	 * @return Vector2 representing the bottom center of the cloud.
+	 * @return The x-coordinate of the current bottom center of the cloud.
 	 */
-	public Vector2 getCurrentBottomCenter() {
-		float minX = Float.MAX_VALUE;
-		float maxX = Float.MIN_VALUE;
-		float maxY = Float.MIN_VALUE;
-
-		for (GameObject block : cloudBlocks) {
-			Vector2 topLeft = block.getTopLeftCorner();
-			Vector2 size = block.getDimensions();
+	public float getBottomCenterX() {
+		return getTopLeftCorner().x() + (minOffsetX + maxOffsetX) / 2f;
+	}
 
-			float blockMinX = topLeft.x();
-			float blockMaxX = blockMinX + size.x();
-			float blockBottomY = topLeft.y() + size.y();
+	/**
+	 * @return The y-coordinate of the current bottom of the cloud.
+	 */
+	public float getBottomY() {
+		return getTopLeftCorner().y() + maxOffsetY;
+	}
 
-			minX = Math.min(minX, blockMinX);
-			maxX = Math.max(maxX, blockMaxX);
-			maxY = Math.max(maxY, blockBottomY);
-		}
+	/**
+	 * @return The x-coordinate of the current left edge of the cloud.
+	 */
+	public float getLeftX() {
+		return getTopLeftCorner().x() + minOffsetX;
+	}
 
-		float centerX = (minX + maxX) / 2f;
-		return new Vector2(centerX, maxY);
+	/**
+	 * Removes the cloud from the game.
+	 */
+	public void remove() {
+		gameObjects.removeGameObject(this, layer);
 	}
 
-	// Adds all cloud pixels to the game world based on the matrix
-	private void createCloudBlocks(Vector2 topLeftCorner, GameObjectCollection gameObjects, int layer) {
-		for (int row = 0; row < CLOUD_MATRIX.size(); row++) {
-			for (int col = 0; col < CLOUD_MATRIX.get(row).size(); col++) {
+	// Draws every set cell of the matrix, each with its own shade, into one transparent image
+	private BufferedImage bakeCloudImage(RandomGenerator random) {
+		BufferedImage image = new BufferedImage(
+				MATRIX_COLS * BLOCK_SIZE, MATRIX_ROWS * BLOCK_SIZE, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		for (int row = 0; row < MATRIX_ROWS; row++) {
+			for (int col = 0; col < MATRIX_COLS; col++) {
 				if (CLOUD_MATRIX.get(row).get(col) == 1) {
-					Vector2 blockPos = topLeftCorner.add(
-							new Vector2(col * BLOCK_SIZE, row * BLOCK_SIZE));
-					GameObject block = new GameObject(
-							blockPos,
-							Vector2.ONES.mult(BLOCK_SIZE),
-							new RectangleRenderable(ColorSupplier.approximateMonoColor(BASE_CLOUD_COLOR)));
-
-					block.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-					gameObjects.addGameObject(block, layer);
-					cloudBlocks.add(block);
+					float offsetX = col * BLOCK_SIZE;
+					float offsetY = row * BLOCK_SIZE;
+					graphics.setColor(ColorSupplier.approximateMonoColor(BASE_CLOUD_COLOR, random));
+					graphics.fillRect(col * BLOCK_SIZE, row * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
+
+					minOffsetX = Math.min(minOffsetX, offsetX);
+					maxOffsetX = Math.max(maxOffsetX, offsetX + BLOCK_SIZE);
+					maxOffsetY = Math.max(maxOffsetY, offsetY + BLOCK_SIZE);
 				}
 			}
 		}
-	}
-
-	// Schedules continuous movement of the cloud blocks to the right
-	private void animateCloudMovement(float startX, GameObjectCollection gameObjects) {
-		float endX = startX + CLOUD_TRAVEL_DISTANCE;
-		float duration = (endX - startX) / CLOUD_SPEED_PX_PER_SEC;
-
-		GameObject scheduler = new GameObject(Vector2.ZERO, Vector2.ZERO, null);
-		scheduler.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-		gameObjects.addGameObject(scheduler, Layer.BACKGROUND);
-
-		new Transition<>(
-				scheduler,
-				x -> {
-					float deltaX = x - startX;
-					for (GameObject block : cloudBlocks) {
-						Vector2 oldPos = block.getTopLeftCorner();
-						block.setTopLeftCorner(new Vector2(oldPos.x() + deltaX, oldPos.y()));
-					}
-				},
-				startX,
-				endX,
-				Transition.LINEAR_INTERPOLATOR_FLOAT,
-				duration,
-				Transition.TransitionType.TRANSITION_LOOP,
-				null
-		);
+		graphics.dispose();
+		return image;
 	}
 }
@@ -5,17 +5,18 @@ import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
 import danogl.components.CoordinateSpace;
 import danogl.components.ScheduledTask;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
+import pepse.util.Profiler;
+import pepse.util.WorldRandom;
 import pepse.world.JumpObserver;
 
-import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
 /**
  * Responsible for managing cloud spawning and triggering continuous rain from cloud positions.
+ * Clouds are retired once they drift out of view, and at most MAX_CLOUDS exist at once.
  */
 public class CloudsManager implements JumpObserver {
 	private static final String RAIN_TAG = "rain";
@@ -23,22 +24,25 @@ public class CloudsManager implements JumpObserver {
 	private static final float CLOUD_INTERVAL_SEC = 10f;
 	private static final float CLOUD_MIN_HEIGHT_PX = 20f;
 	private static final float CLOUD_MAX_HEIGHT_PX = 300f;
+	private static final float CLOUD_SPEED_PX_PER_SEC = 60f;
+	private static final int MAX_CLOUDS = 6;
 
-	private static final int DROP_WIDTH_PX = 3;
-	private static final int DROP_HEIGHT_PX = 7;
-	private static final Color DROP_COLOR = new Color(45, 74, 214);
-	private static final float DROP_FALL_DISTANCE_PX = 800f;
-	private static final float DROP_DURATION_SEC = 5f;
+	// Enough drops for several clouds raining at full density at once
+	private static final int RAIN_PARTICLE_CAPACITY = 8192;
+	private static final int DROPS_PER_EMISSION = 10;
 	private static final float DROP_INTERVAL_SEC = 0.05f;
 	private static final float DROP_SPREAD_RADIUS_PX = 80f;
 	private static final float RAIN_DURATION_SEC = 2f;
 	private static final float OFFSCREEN_SPAWN_X = -500f;
+	// Separates the weather's random stream from other uses of the world seed
+	private static final int WEATHER_SALT = 3;
 
 	private final GameObjectCollection gameObjects;
 	private final Vector2 windowDimensions;
 	private final int layer;
 	private final List<Cloud> clouds = new ArrayList<>();
-	private final Random random = new Random();
+	private final Random random;
+	private final RainParticleSystem rainParticles;
 	private boolean raining = false;
 	private GameObject rainScheduler;
 
@@ -48,11 +52,15 @@ public class CloudsManager implements JumpObserver {
 	 * @param gameObjects       The global game object collection.
 	 * @param windowDimensions  Dimensions of the window.
 	 * @param layer             The layer on which clouds and rain will be drawn.
+	 * @param seed              The world seed; the same seed and input always give the same weather.
 	 */
-	public CloudsManager(GameObjectCollection gameObjects, Vector2 windowDimensions, int layer) {
+	public CloudsManager(GameObjectCollection gameObjects, Vector2 windowDimensions, int layer, int seed) {
 		this.gameObjects = gameObjects;
 		this.windowDimensions = windowDimensions;
 		this.layer = layer;
+		this.random = WorldRandom.at(seed, 0, WEATHER_SALT);
+		this.rainParticles = new RainParticleSystem(windowDimensions, RAIN_PARTICLE_CAPACITY);
+		gameObjects.addGameObject(rainParticles, Layer.BACKGROUND);
 	}
 
 	/**
@@ -67,14 +75,34 @@ public class CloudsManager implements JumpObserver {
 				scheduler,
 				CLOUD_INTERVAL_SEC,
 				true,
-				() -> {
-					float cloudHeight = CLOUD_MIN_HEIGHT_PX +
-							(CLOUD_MAX_HEIGHT_PX - CLOUD_MIN_HEIGHT_PX) * random.nextFloat();
-					Vector2 center = new Vector2(OFFSCREEN_SPAWN_X, cloudHeight);
-					Cloud newCloud = new Cloud(center, gameObjects, layer);
-					clouds.add(newCloud);
-				}
+				this::spawnCloud
 		);
+		scheduler.addComponent(deltaTime -> retireCloudsOutOfView());
+	}
+
+	// Adds a new cloud left of the screen, unless the cloud limit was reached
+	private void spawnCloud() {
+		if (clouds.size() >= MAX_CLOUDS) {
+			return;
+		}
+		float cloudHeight = CLOUD_MIN_HEIGHT_PX +
+				(CLOUD_MAX_HEIGHT_PX - CLOUD_MIN_HEIGHT_PX) * random.nextFloat();
+		Vector2 center = new Vector2(OFFSCREEN_SPAWN_X, cloudHeight);
+		Cloud newCloud = new Cloud(center, gameObjects, layer, CLOUD_SPEED_PX_PER_SEC, random);
+		clouds.add(newCloud);
+	}
+
+	// Removes the clouds that drifted past the right edge of the screen
+	private void retireCloudsOutOfView() {
+		long start = Profiler.start();
+		for (int i = clouds.size() - 1; i >= 0; i--) {
+			Cloud cloud = clouds.get(i);
+			if (cloud.getLeftX() > windowDimensions.x()) {
+				cloud.remove();
+				clouds.remove(i);
+			}
+		}
+		Profiler.stop(Profiler.Section.CLOUDS, start);
 	}
 
 	/**
@@ -95,9 +123,13 @@ public class CloudsManager implements JumpObserver {
 				DROP_INTERVAL_SEC,
 				true,
 				() -> {
-					for (Cloud cloud : clouds) {
-						Vector2 pos = cloud.getCurrentBottomCenter();
-						spawnSingleDrop(pos);
+					for (int c = 0; c < clouds.size(); c++) {
+						Cloud cloud = clouds.get(c);
+						float bottomCenterX = cloud.getBottomCenterX();
+						float bottomY = cloud.getBottomY();
+						for (int i = 0; i < DROPS_PER_EMISSION; i++) {
+							spawnSingleDrop(bottomCenterX, bottomY);
+						}
 					}
 				}
 		);
@@ -114,43 +146,16 @@ public class CloudsManager implements JumpObserver {
 		);
 	}
 
-	// Spawns a single drop from a given cloud base center, including fall and fade-out animation
-	private void spawnSingleDrop(Vector2 baseCenter) {
-		float offsetX = (random.nextFloat() - 0.5f) * 2 * DROP_SPREAD_RADIUS_PX;
-		float x = baseCenter.x() + offsetX;
-		float y = baseCenter.y();
-
-		RectangleRenderable renderable = new RectangleRenderable(DROP_COLOR);
-		GameObject drop = new GameObject(
-				new Vector2(x, y),
-				new Vector2(DROP_WIDTH_PX, DROP_HEIGHT_PX),
-				renderable
-		);
-		drop.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-		gameObjects.addGameObject(drop, Layer.BACKGROUND);
-
-		// Animate drop falling
-		new danogl.components.Transition<>(
-				drop,
-				dy -> drop.setCenter(new Vector2(drop.getCenter().x(), dy)),
-				y,
-				y + DROP_FALL_DISTANCE_PX,
-				danogl.components.Transition.LINEAR_INTERPOLATOR_FLOAT,
-				DROP_DURATION_SEC,
-				danogl.components.Transition.TransitionType.TRANSITION_ONCE,
-				null
-		);
+	/**
+	 * @return The particle system drawing the rain, e.g. to read its live drop count.
+	 */
+	public RainParticleSystem getRainParticles() {
+		return rainParticles;
+	}
 
-		// Animate drop transparency fading out
-		new danogl.components.Transition<>(
-				drop,
-				alpha -> drop.renderer().setOpaqueness(alpha),
-				1f,
-				0f,
-				danogl.components.Transition.LINEAR_INTERPOLATOR_FLOAT,
-				DROP_DURATION_SEC,
-				danogl.components.Transition.TransitionType.TRANSITION_ONCE,
-				() -> gameObjects.removeGameObject(drop, Layer.BACKGROUND)
-		);
+	// Emits a single drop from a given cloud base center; the particle system animates it
+	private void spawnSingleDrop(float baseCenterX, float baseY) {
+		float offsetX = (random.nextFloat() - 0.5f) * 2 * DROP_SPREAD_RADIUS_PX;
+		rainParticles.emit(baseCenterX + offsetX, baseY);
 	}
 }
@@ -0,0 +1,136 @@
+package pepse.world.weather;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.Profiler;
+
+import java.awt.*;
+
+/**
+ * Simulates and draws every rain drop with a single game object.
+ * Drops are stored as parallel primitive arrays (struct of arrays) with a fixed capacity:
+ * updating is one tight loop over the live drops, drawing is one pass, and emitting or
+ * expiring a drop allocates nothing.
+ */
+public class RainParticleSystem extends GameObject {
+	private static final int DROP_WIDTH_PX = 3;
+	private static final int DROP_HEIGHT_PX = 7;
+	private static final Color DROP_COLOR = new Color(45, 74, 214);
+	private static final float DROP_FALL_DISTANCE_PX = 800f;
+	private static final float DROP_DURATION_SEC = 5f;
+	private static final float DROP_SPEED_PX_PER_SEC = DROP_FALL_DISTANCE_PX / DROP_DURATION_SEC;
+	// Drops fade through this many precomputed translucent colors
+	private static final int ALPHA_LEVELS = 32;
+	private static final Color[] FADE_COLORS = createFadeColors();
+
+	private final int capacity;
+	private final float[] xs;
+	private final float[] ys;
+	private final float[] ages;
+	private int liveCount = 0;
+	private long droppedCount = 0;
+
+	/**
+	 * Constructs an empty particle system covering the screen.
+	 *
+	 * @param screenDimensions Dimensions of the screen; drop positions are in camera coordinates.
+	 * @param capacity         The maximal number of drops alive at once.
+	 */
+	public RainParticleSystem(Vector2 screenDimensions, int capacity) {
+		super(Vector2.ZERO, screenDimensions, null);
+		this.capacity = capacity;
+		this.xs = new float[capacity];
+		this.ys = new float[capacity];
+		this.ages = new float[capacity];
+		setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+		renderer().setRenderable(new DropsRenderable());
+	}
+
+	/**
+	 * Starts a drop falling from the given position. When the system is full the drop is skipped.
+	 *
+	 * @param x X-position of the drop's center, in camera coordinates.
+	 * @param y Y-position of the drop's center, in camera coordinates.
+	 */
+	public void emit(float x, float y) {
+		if (liveCount == capacity) {
+			droppedCount++;
+			return;
+		}
+		xs[liveCount] = x - DROP_WIDTH_PX / 2f;
+		ys[liveCount] = y - DROP_HEIGHT_PX / 2f;
+		ages[liveCount] = 0;
+		liveCount++;
+	}
+
+	/**
+	 * Advances every live drop, removing the ones that finished their fall.
+	 *
+	 * @param deltaTime Time since last update.
+	 */
+	@Override
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		long start = Profiler.start();
+		float fallDistance = DROP_SPEED_PX_PER_SEC * deltaTime;
+		int i = 0;
+		while (i < liveCount) {
+			ages[i] += deltaTime;
+			if (ages[i] >= DROP_DURATION_SEC) {
+				// Replace the expired drop with the last live one
+				liveCount--;
+				xs[i] = xs[liveCount];
+				ys[i] = ys[liveCount];
+				ages[i] = ages[liveCount];
+				continue;
+			}
+			ys[i] += fallDistance;
+			i++;
+		}
+		Profiler.stop(Profiler.Section.RAIN, start);
+	}
+
+	/**
+	 * @return The number of drops currently falling.
+	 */
+	public int getLiveCount() {
+		return liveCount;
+	}
+
+	/**
+	 * @return The number of drops skipped because the system was full.
+	 */
+	public long getDroppedCount() {
+		return droppedCount;
+	}
+
+	// The drop color at every fade level, from transparent to fully opaque
+	private static Color[] createFadeColors() {
+		Color[] colors = new Color[ALPHA_LEVELS];
+		for (int level = 0; level < ALPHA_LEVELS; level++) {
+			int alpha = Math.round(255f * level / (ALPHA_LEVELS - 1));
+			colors[level] = new Color(DROP_COLOR.getRed(), DROP_COLOR.getGreen(), DROP_COLOR.getBlue(), alpha);
+		}
+		return colors;
+	}
+
+	/**
+	 * Draws all live drops in one pass, fading each one according to its age.
+	 */
+	private class DropsRenderable implements Renderable {
+		@Override
+		public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+						   double degreesCounterClockwise, boolean isFlippedHorizontally,
+						   boolean isFlippedVertically, double opaqueness) {
+			int left = Math.round(topLeftCorner.x());
+			int top = Math.round(topLeftCorner.y());
+			for (int i = 0; i < liveCount; i++) {
+				int level = (int) ((1f - ages[i] / DROP_DURATION_SEC) * (ALPHA_LEVELS - 1));
+				g.setColor(FADE_COLORS[level]);
+				g.fillRect(left + (int) xs[i], top + (int) ys[i], DROP_WIDTH_PX, DROP_HEIGHT_PX);
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package pepse.headless;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pepse.input.InputRecorder;
+import pepse.input.InputReplay;
+import pepse.input.VirtualKeyboard;
+import pepse.world.Avatar;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Records a scripted run of the headless simulation, replays the recording in a new simulation,
+ * and checks that both runs pressed the same keys every tick and ended in the same state.
+ */
+class ReplayTest {
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+	private static final int SEED = 4321;
+	private static final float TICK_SECONDS = 1 / 60f;
+	// Short enough for the avatar to stay within the chunks built before the first tick
+	private static final int TICKS = 300;
+	private static final int[] KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE};
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replayReachesTheSameStateAsTheRecordedRun() throws IOException {
+		Path recording = directory.resolve("run.bin");
+		VirtualKeyboard keyboard = new VirtualKeyboard();
+		HeadlessSimulation recorded = new HeadlessSimulation(SEED, WINDOW_DIMENSIONS, keyboard.asListener());
+		List<boolean[]> recordedKeys = new ArrayList<>();
+		try (InputRecorder recorder = new InputRecorder(recording, SEED)) {
+			for (int tick = 0; tick < TICKS; tick++) {
+				keyboard.setPressed(KeyEvent.VK_RIGHT, tick < 180);
+				keyboard.setPressed(KeyEvent.VK_LEFT, tick >= 180 && tick < 240);
+				keyboard.setPressed(KeyEvent.VK_SPACE, tick % 45 == 0);
+				recordedKeys.add(pressedKeys(keyboard.asListener()));
+				recorder.record(keyboard.asListener());
+				recorded.tick(TICK_SECONDS);
+				keyboard.endFrame();
+			}
+		}
+
+		InputReplay replay = InputReplay.load(recording);
+		assertEquals(SEED, replay.getSeed());
+		assertEquals(TICKS, replay.getTickCount());
+		HeadlessSimulation replayed = new HeadlessSimulation(replay.getSeed(), WINDOW_DIMENSIONS, replay.asListener());
+		for (int tick = 0; tick < TICKS; tick++) {
+			replay.nextTick();
+			assertEquals(toString(recordedKeys.get(tick)), toString(pressedKeys(replay.asListener())),
+					"keys of tick " + tick);
+			replayed.tick(TICK_SECONDS);
+		}
+
+		Avatar expected = recorded.getAvatar();
+		Avatar actual = replayed.getAvatar();
+		assertNotEquals(WINDOW_DIMENSIONS.x() / 2f, expected.getCenter().x(), "the scripted run should move");
+		assertEquals(expected.getTopLeftCorner().x(), actual.getTopLeftCorner().x());
+		assertEquals(expected.getTopLeftCorner().y(), actual.getTopLeftCorner().y());
+		assertEquals(expected.getVelocity().x(), actual.getVelocity().x());
+		assertEquals(expected.getVelocity().y(), actual.getVelocity().y());
+		assertEquals(expected.getEnergy(), actual.getEnergy());
+		assertEquals(recorded.getTicks(), replayed.getTicks());
+		assertEquals(recorded.getTime(), replayed.getTime());
+		assertEquals(recorded.getCloudsManager().getRainParticles().getLiveCount(),
+				replayed.getCloudsManager().getRainParticles().getLiveCount());
+	}
+
+	// The state of the recorded keys
+	private static boolean[] pressedKeys(UserInputListener input) {
+		boolean[] pressed = new boolean[KEYS.length];
+		for (int i = 0; i < KEYS.length; i++) {
+			pressed[i] = input.isKeyPressed(KEYS[i]);
+		}
+		return pressed;
+	}
+
+	// Describes the state of the recorded keys, for failure messages
+	private static String toString(boolean[] pressed) {
+		StringBuilder keys = new StringBuilder();
+		for (int i = 0; i < KEYS.length; i++) {
+			if (pressed[i]) {
+				keys.append(KeyEvent.getKeyText(KEYS[i])).append(' ');
+			}
+		}
+		return keys.toString().trim();
+	}
+}
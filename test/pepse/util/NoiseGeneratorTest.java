@@ -0,0 +1,155 @@
+package pepse.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the 1D noise kernel and its batch overloads give exactly the values of the
+ * original 3D Perlin evaluation, kept below as the reference.
+ */
+class NoiseGeneratorTest {
+    private static final double[] SEEDS = {0, 1234, -987.25, 0.5, 4.2e6, -1.75e-3};
+    private static final int[] START_POINTS = {720, 400, 1};
+    private static final double FACTOR = 30 * 7;
+    private static final double MIN_X = -6000;
+    private static final double MAX_X = 6000;
+    // Not a multiple of the block size, so points fall anywhere within lattice cells
+    private static final double STEP_X = 7.3;
+    private static final double BLOCK_SIZE = 30;
+
+    @Test
+    void noiseMatchesTheOriginalEvaluation() {
+        for (double seed : SEEDS) {
+            for (int startPoint : START_POINTS) {
+                NoiseGenerator noise = new NoiseGenerator(seed, startPoint);
+                ReferenceNoise reference = new ReferenceNoise(seed, startPoint);
+                for (double x = MIN_X; x <= MAX_X; x += STEP_X) {
+                    assertEquals(reference.noise(x, FACTOR), noise.noise(x, FACTOR),
+                            "seed " + seed + ", start point " + startPoint + ", x " + x);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchNoiseMatchesTheOriginalEvaluation() {
+        int count = (int) ((MAX_X - MIN_X) / BLOCK_SIZE);
+        double[] doubles = new double[count + 1];
+        float[] floats = new float[count + 1];
+        for (double seed : SEEDS) {
+            for (int startPoint : START_POINTS) {
+                NoiseGenerator noise = new NoiseGenerator(seed, startPoint);
+                ReferenceNoise reference = new ReferenceNoise(seed, startPoint);
+                noise.noise(MIN_X, BLOCK_SIZE, FACTOR, doubles, 1, count);
+                noise.noise(MIN_X, BLOCK_SIZE, FACTOR, floats, 1, count);
+                for (int i = 0; i < count; i++) {
+                    double expected = reference.noise(MIN_X + i * BLOCK_SIZE, FACTOR);
+                    String point = "seed " + seed + ", start point " + startPoint + ", point " + i;
+                    assertEquals(expected, doubles[i + 1], point);
+                    assertEquals((float) expected, floats[i + 1], point);
+                }
+                assertEquals(0, doubles[0]);
+                assertEquals(0, floats[0]);
+            }
+        }
+    }
+
+    /**
+     * The noise generator as it was before the 1D kernel: classic improved Perlin noise,
+     * sampled at (x + 2 * seed, seed, 0).
+     */
+    private static class ReferenceNoise {
+        private static final int[] PERMUTATION = {151, 160, 137, 91, 90, 15, 131, 13, 201,
+                95, 96, 53, 194, 233, 7, 225, 140, 36, 103, 30, 69, 142, 8, 99,
+                37, 240, 21, 10, 23, 190, 6, 148, 247, 120, 234, 75, 0, 26,
+                197, 62, 94, 252, 219, 203, 117, 35, 11, 32, 57, 177, 33, 88,
+                237, 149, 56, 87, 174, 20, 125, 136, 171, 168, 68, 175, 74,
+                165, 71, 134, 139, 48, 27, 166, 77, 146, 158, 231, 83, 111,
+                229, 122, 60, 211, 133, 230, 220, 105, 92, 41, 55, 46, 245, 40,
+                244, 102, 143, 54, 65, 25, 63, 161, 1, 216, 80, 73, 209, 76,
+                132, 187, 208, 89, 18, 169, 200, 196, 135, 130, 116, 188, 159,
+                86, 164, 100, 109, 198, 173, 186, 3, 64, 52, 217, 226, 250,
+                124, 123, 5, 202, 38, 147, 118, 126, 255, 82, 85, 212, 207,
+                206, 59, 227, 47, 16, 58, 17, 182, 189, 28, 42, 223, 183, 170,
+                213, 119, 248, 152, 2, 44, 154, 163, 70, 221, 153, 101, 155,
+                167, 43, 172, 9, 129, 22, 39, 253, 19, 98, 108, 110, 79, 113,
+                224, 232, 178, 185, 112, 104, 218, 246, 97, 228, 251, 34, 242,
+                193, 238, 210, 144, 12, 191, 179, 162, 241, 81, 51, 145, 235,
+                249, 14, 239, 107, 49, 192, 214, 31, 181, 199, 106, 157, 184,
+                84, 204, 176, 115, 121, 50, 45, 127, 4, 150, 254, 138, 236,
+                205, 93, 222, 114, 67, 29, 24, 72, 243, 141, 128, 195, 78, 66,
+                215, 61, 156, 180};
+
+        private final double seed;
+        private final double startPoint;
+        private final int[] p = new int[512];
+
+        private ReferenceNoise(double seed, int startPoint) {
+            this.seed = seed;
+            this.startPoint = startPoint;
+            for (int i = 0; i < 256; i++) {
+                p[256 + i] = p[i] = PERMUTATION[i];
+            }
+        }
+
+        private double noise(double x, double factor) {
+            double value = 0.0;
+            double currentPoint = startPoint;
+            while (currentPoint >= 1) {
+                value += smoothNoise(x / currentPoint, 0, 0) * currentPoint;
+                currentPoint /= 2.0;
+            }
+            return value * factor / startPoint;
+        }
+
+        private double smoothNoise(double x, double y, double z) {
+            x += seed;
+            y += seed;
+            x += seed;
+
+            int X = (int) Math.floor(x) & 255;
+            int Y = (int) Math.floor(y) & 255;
+            int Z = (int) Math.floor(z) & 255;
+
+            x -= Math.floor(x);
+            y -= Math.floor(y);
+            z -= Math.floor(z);
+
+            double u = fade(x);
+            double v = fade(y);
+            double w = fade(z);
+
+            int A = p[X] + Y;
+            int AA = p[A] + Z;
+            int AB = p[A + 1] + Z;
+            int B = p[X + 1] + Y;
+            int BA = p[B] + Z;
+            int BB = p[B + 1] + Z;
+
+            return lerp(w, lerp(v, lerp(u, grad(p[AA], x, y, z),
+                                    grad(p[BA], x - 1, y, z)),
+                            lerp(u, grad(p[AB], x, y - 1, z),
+                                    grad(p[BB], x - 1, y - 1, z))),
+                    lerp(v, lerp(u, grad(p[AA + 1], x, y, z - 1),
+                                    grad(p[BA + 1], x - 1, y, z - 1)),
+                            lerp(u, grad(p[AB + 1], x, y - 1, z - 1),
+                                    grad(p[BB + 1], x - 1, y - 1, z - 1))));
+        }
+
+        private static double fade(double t) {
+            return t * t * t * (t * (t * 6 - 15) + 10);
+        }
+
+        private static double lerp(double t, double a, double b) {
+            return a + t * (b - a);
+        }
+
+        private static double grad(int hash, double x, double y, double z) {
+            int h = hash & 15;
+            double u = h < 8 ? x : y;
+            double v = h < 4 ? y : h == 12 || h == 14 ? x : z;
+            return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package pepse.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests SpatialIndex, in particular items covering several columns, like merged terrain blocks.
+ */
+class SpatialIndexTest {
+	private static final float CELL_WIDTH = 30;
+	// A merged block five columns wide, and a single block right after it
+	private static final String MERGED_BLOCK = "merged";
+	private static final String SINGLE_BLOCK = "single";
+
+	private final SpatialIndex<String> index = new SpatialIndex<>(CELL_WIDTH);
+
+	SpatialIndexTest() {
+		index.add(0, 5 * CELL_WIDTH, MERGED_BLOCK);
+		index.add(6 * CELL_WIDTH, 7 * CELL_WIDTH, SINGLE_BLOCK);
+	}
+
+	@Test
+	void queryInTheMiddleOfAMergedBlockFindsIt() {
+		assertEquals(List.of(MERGED_BLOCK), index.queryRange(75, 80, new ArrayList<>()));
+	}
+
+	@Test
+	void queryAcrossSeveralColumnsReportsEachItemOnce() {
+		assertEquals(List.of(MERGED_BLOCK, SINGLE_BLOCK),
+				index.queryRange(-100, 1000, new ArrayList<>()));
+	}
+
+	@Test
+	void nearestItemCoveringThePositionIsAtDistanceZero() {
+		assertSame(MERGED_BLOCK, index.nearest(100, 0));
+		assertSame(SINGLE_BLOCK, index.nearest(6.5f * CELL_WIDTH, 0));
+		assertNull(index.nearest(5.5f * CELL_WIDTH, 10));
+	}
+
+	@Test
+	void removingARangeRemovesItFromEveryColumn() {
+		assertTrue(index.remove(0, 5 * CELL_WIDTH, MERGED_BLOCK));
+		assertEquals(1, index.size());
+		assertTrue(index.queryRange(0, 5 * CELL_WIDTH, new ArrayList<>()).isEmpty());
+		assertFalse(index.remove(0, 5 * CELL_WIDTH, MERGED_BLOCK));
+	}
+
+	@Test
+	void pointItemsAreFoundByTheirPosition() {
+		index.add(300, "fruit");
+		assertEquals(List.of("fruit"), index.queryRange(300, 300, new ArrayList<>()));
+		assertSame("fruit", index.nearest(295, 10, item -> item.equals("fruit")));
+	}
+}
@@ -0,0 +1,42 @@
+package pepse.world.chunks;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+import pepse.world.trees.WindAnimator;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests loading the initial window of chunks with ChunkManager.
+ */
+class ChunkManagerTest {
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+	private static final int SEED = 1234;
+
+	private final GameObjectCollection gameObjects = new GameObjectCollection();
+	private final Terrain terrain = new Terrain(WINDOW_DIMENSIONS, SEED, true);
+	private final ChunkManager chunkManager = new ChunkManager(terrain,
+			new Flora(terrain, gameObjects, Layer.STATIC_OBJECTS, SEED, new WindAnimator()),
+			gameObjects, Layer.STATIC_OBJECTS, WINDOW_DIMENSIONS.x());
+
+	@AfterEach
+	void closeChunkManager() {
+		chunkManager.close();
+	}
+
+	@Test
+	void preloadAfterStreamingRequestsWaitsForEveryChunk() {
+		// Requests the window in the background, as every frame does
+		chunkManager.update(WINDOW_DIMENSIONS.x() / 2f);
+		chunkManager.startPreload(WINDOW_DIMENSIONS.x(), ForkJoinPool.commonPool()).join();
+		chunkManager.finishPreload();
+		assertTrue(chunkManager.getLoadedChunkCount() > 0);
+	}
+}
@@ -0,0 +1,217 @@
+package pepse.world.chunks;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pepse.world.Terrain;
+import pepse.world.TerrainColumns;
+import pepse.world.trees.Flora;
+import pepse.world.trees.TreeLayout;
+import pepse.world.trees.WindAnimator;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests saving and loading chunks through ChunkStore, and how it handles damaged region files.
+ */
+class ChunkStoreTest {
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1920, 1080);
+	private static final int SEED = 1234;
+	// Offset of the first record written to a new region file: right after the header
+	private static final int FIRST_RECORD_OFFSET = 6 * Integer.BYTES + ChunkStore.REGION_CHUNKS * 2 * Integer.BYTES;
+
+	@TempDir
+	Path root;
+
+	private Terrain terrain;
+	private Flora flora;
+
+	@BeforeEach
+	void createWorld() {
+		terrain = new Terrain(WINDOW_DIMENSIONS, SEED, true);
+		flora = new Flora(terrain, new GameObjectCollection(), Layer.STATIC_OBJECTS, SEED, new WindAnimator());
+	}
+
+	@Test
+	void savedChunkWithSomeFruitsEatenLoadsIdentically() throws IOException {
+		ChunkData generated = generateChunkWithFruits();
+		// Every other fruit eaten, with a different time left on each
+		float[] respawnTimes = new float[generated.getFruitCount()];
+		for (int i = 0; i < respawnTimes.length; i += 2) {
+			respawnTimes[i] = 1.5f + i;
+		}
+		ChunkData saved = new ChunkData(generated.getIndex(), generated.getTerrain(), generated.getTrees(),
+				respawnTimes);
+
+		try (ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight())) {
+			store.save(saved);
+		}
+		try (ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight())) {
+			ChunkData loaded = store.load(saved.getIndex());
+			assertNotNull(loaded);
+			assertSameChunk(saved, loaded);
+			assertArrayEquals(respawnTimes, loaded.getFruitRespawnTimes());
+		}
+	}
+
+	@Test
+	void resavingAChunkReplacesItsFruitState() throws IOException {
+		ChunkData generated = generateChunkWithFruits();
+		float[] respawnTimes = new float[generated.getFruitCount()];
+		respawnTimes[0] = 10;
+		try (ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight())) {
+			store.save(generated);
+			assertNull(store.load(generated.getIndex()).getFruitRespawnTimes());
+			store.save(new ChunkData(generated.getIndex(), generated.getTerrain(), generated.getTrees(),
+					respawnTimes));
+			assertArrayEquals(respawnTimes, store.load(generated.getIndex()).getFruitRespawnTimes());
+		}
+	}
+
+	@Test
+	void chunkNeverSavedLoadsAsNull() throws IOException {
+		try (ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight())) {
+			assertNull(store.load(0));
+			store.save(generate(0));
+			assertNull(store.load(1));
+			assertNull(store.load(ChunkStore.REGION_CHUNKS));
+		}
+	}
+
+	@Test
+	void damagedRecordFailsToLoadAndCanBeSavedAgain() throws IOException {
+		ChunkData data = generate(0);
+		try (ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight())) {
+			store.save(data);
+		}
+		// Overwrite the record's color count (after the chunk index) with -1
+		Path region = root.resolve(Integer.toString(SEED)).resolve("region_0.bin");
+		try (FileChannel channel = FileChannel.open(region, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, -1), FIRST_RECORD_OFFSET + Integer.BYTES);
+		}
+
+		try (ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight())) {
+			IOException failure = assertThrows(IOException.class, () -> store.load(0));
+			assertTrue(failure.getMessage().contains("Damaged"), failure.getMessage());
+			store.save(data);
+			assertSameChunk(data, store.load(0));
+		}
+	}
+
+	@Test
+	void recordWithWrongTerrainDepthFailsToLoad() throws IOException {
+		ChunkData data = generate(0);
+		Path region = root.resolve(Integer.toString(SEED)).resolve("region_0.bin");
+		// The depth follows the chunk index, the color table, the start x and the column count
+		long depthOffset = FIRST_RECORD_OFFSET + 2 * Integer.BYTES
+				+ colorTableSize(data) * Integer.BYTES + 2 * Integer.BYTES;
+		// A depth that no longer matches the number of cell colors, then a depth of zero
+		for (int depth : new int[]{data.getTerrain().getDepth() - 1, 0}) {
+			try (ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight())) {
+				store.save(data);
+			}
+			try (FileChannel channel = FileChannel.open(region, StandardOpenOption.WRITE)) {
+				channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, depth), depthOffset);
+			}
+			try (ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight())) {
+				IOException failure = assertThrows(IOException.class, () -> store.load(0));
+				assertTrue(failure.getMessage().contains("Damaged"), failure.getMessage());
+			}
+		}
+	}
+
+	@Test
+	void closedStoreFailsInsteadOfReopeningFiles() throws IOException {
+		ChunkStore store = new ChunkStore(root, SEED, terrain.getBaseHeight());
+		store.save(generate(0));
+		store.close();
+		assertThrows(IOException.class, () -> store.load(0));
+		assertThrows(IOException.class, () -> store.save(generate(1)));
+	}
+
+	// Generates the data of a chunk, as the chunk manager does
+	private ChunkData generate(int index) {
+		int minX = index * ChunkManager.CHUNK_WIDTH;
+		int maxX = minX + ChunkManager.CHUNK_WIDTH;
+		return new ChunkData(index, terrain.generateInRange(minX, maxX - Terrain.BLOCK_SIZE),
+				flora.layoutInRange(minX, maxX));
+	}
+
+	// Generates the first chunk (from 0) with at least two fruits
+	private ChunkData generateChunkWithFruits() {
+		for (int index = 0; ; index++) {
+			ChunkData data = generate(index);
+			if (data.getFruitCount() >= 2) {
+				return data;
+			}
+		}
+	}
+
+	// Number of distinct colors in a chunk, which is the size of its record's color table
+	private static int colorTableSize(ChunkData data) {
+		Set<Color> colors = new HashSet<>(Arrays.asList(data.getTerrain().getCellColors()));
+		for (TreeLayout tree : data.getTrees()) {
+			colors.add(tree.getTrunkColor());
+			colors.addAll(tree.getLeafColors());
+			colors.addAll(tree.getFruitColors());
+		}
+		return colors.size();
+	}
+
+	// Checks that two chunks have the same terrain and trees
+	private static void assertSameChunk(ChunkData expected, ChunkData actual) {
+		assertEquals(expected.getIndex(), actual.getIndex());
+		TerrainColumns expectedTerrain = expected.getTerrain();
+		TerrainColumns actualTerrain = actual.getTerrain();
+		assertEquals(expectedTerrain.getStartX(), actualTerrain.getStartX());
+		assertEquals(expectedTerrain.getColumnCount(), actualTerrain.getColumnCount());
+		assertEquals(expectedTerrain.getDepth(), actualTerrain.getDepth());
+		for (int column = 0; column < expectedTerrain.getColumnCount(); column++) {
+			assertEquals(expectedTerrain.getTop(column), actualTerrain.getTop(column));
+		}
+		assertArrayEquals(expectedTerrain.getCellColors(), actualTerrain.getCellColors());
+
+		assertEquals(expected.getTrees().size(), actual.getTrees().size());
+		for (int i = 0; i < expected.getTrees().size(); i++) {
+			TreeLayout expectedTree = expected.getTrees().get(i);
+			TreeLayout actualTree = actual.getTrees().get(i);
+			assertEquals(expectedTree.getX(), actualTree.getX());
+			assertEquals(expectedTree.getTrunkTop(), actualTree.getTrunkTop());
+			assertEquals(expectedTree.getTrunkHeight(), actualTree.getTrunkHeight());
+			assertEquals(expectedTree.getTrunkColor(), actualTree.getTrunkColor());
+			assertSamePositions(expectedTree.getLeafPositions(), actualTree.getLeafPositions());
+			assertEquals(expectedTree.getLeafColors(), actualTree.getLeafColors());
+			assertArrayEquals(expectedTree.getLeafWindDelays(), actualTree.getLeafWindDelays());
+			assertSamePositions(expectedTree.getFruitPositions(), actualTree.getFruitPositions());
+			assertEquals(expectedTree.getFruitColors(), actualTree.getFruitColors());
+		}
+	}
+
+	// Checks that two lists of positions are equal, coordinate by coordinate
+	private static void assertSamePositions(List<Vector2> expected, List<Vector2> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).x(), actual.get(i).x());
+			assertEquals(expected.get(i).y(), actual.get(i).y());
+		}
+	}
+}